@@ -0,0 +1,180 @@
+package com.mojang.tower;
+
+/**
+ * A scripted player for headless runs.
+ *
+ * Peons only work near where they were born, so the player expects an
+ * island started beside the tower (see {@link Island.Start#BESIDE_TOWER}),
+ * and it runs no woodcutters or farms, so it expects {@link #STARTING_STOCK}
+ * of each resource. Around the starting guardpost it raises residences and
+ * barracks first, then masons where the tower is the nearest rock, and
+ * rebuilds whatever the monsters knock down. Every level mined frees a
+ * monster, so masons are sold again while too many are out. Every decision
+ * is a {@link Command} made from the island state alone, so a seeded game
+ * with this player plays out the same way every time.
+ */
+public final class AutoPlayer
+{
+    /**
+     * Wood, rock and food the island should start with.
+     */
+    public static final int STARTING_STOCK = 2000;
+
+    private static final int THINK_INTERVAL = 30;
+    // Houses are placed within this distance of the starting guardpost
+    private static final double HOME_RADIUS = 40;
+    // Wanted houses, in the order they are raised: a house later in the list
+    // is only placed once every count before it is met
+    private static final HouseType[] PLAN = {
+        HouseType.RESIDENCE, HouseType.BARRACKS, HouseType.RESIDENCE, HouseType.BARRACKS,
+        HouseType.RESIDENCE, HouseType.BARRACKS, HouseType.MASON, HouseType.MASON,
+        HouseType.MASON, HouseType.RESIDENCE, HouseType.MASON, HouseType.RESIDENCE,
+    };
+    // Masons wait for this many warriors, as every level mined frees a monster
+    private static final int ARMY = 15;
+    // Mining stops while this many monsters are out, until the army catches up
+    private static final int MONSTER_LIMIT = 6;
+
+    // Where the starting guardpost stood, fixed on the first decision
+    private double homeX, homeY;
+    private boolean homeKnown;
+
+    /**
+     * @return the command to apply before the given island tick, or null to wait
+     */
+    public Command next(Island island, int tick)
+    {
+        if (tick % THINK_INTERVAL != 0) return null;
+        Tower tower = findTower(island);
+        if (tower == null) return null;
+        if (!homeKnown)
+        {
+            House home = findHouse(island, HouseType.GUARDPOST);
+            if (home == null) return null;
+            homeX = home.x;
+            homeY = home.y;
+            homeKnown = true;
+        }
+
+        if (island.monsterPopulation >= MONSTER_LIMIT)
+        {
+            House mason = findHouse(island, HouseType.MASON);
+            return mason == null ? null : new Command.SellHouse(mason.getId());
+        }
+        // One house at a time, and none under attack: a house lost before it
+        // is built still costs its population
+        if (hasUnbuilt(island) || monsterNear(island, homeX, homeY)) return null;
+        int[] wanted = new int[HouseType.houseTypes.length];
+        for (HouseType type : PLAN)
+        {
+            int i = indexOf(type);
+            wanted[i]++;
+            if (type == HouseType.MASON && island.warriorPopulation < ARMY) return null;
+            if (count(island, type) < wanted[i])
+            {
+                // Move on to the next wanted house if this one has no room left
+                Command command = near(island, tower, type);
+                if (command != null) return command;
+            }
+        }
+        return null;
+    }
+
+    private static Tower findTower(Island island)
+    {
+        for (Entity e : island.entities)
+        {
+            if (e instanceof Tower tower && tower.isAlive()) return tower;
+        }
+        return null;
+    }
+
+    private static House findHouse(Island island, HouseType type)
+    {
+        for (Entity e : island.entities)
+        {
+            if (e instanceof House house && house.isAlive() && house.getType() == type) return house;
+        }
+        return null;
+    }
+
+    private static int indexOf(HouseType type)
+    {
+        for (int i = 0; i < HouseType.houseTypes.length; i++)
+        {
+            if (HouseType.houseTypes[i] == type) return i;
+        }
+        return -1;
+    }
+
+    private static boolean monsterNear(Island island, double x, double y)
+    {
+        for (Entity e : island.entities)
+        {
+            if (e instanceof Monster monster && monster.isAlive() && Math.hypot(monster.x - x, monster.y - y) < HOME_RADIUS) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasUnbuilt(Island island)
+    {
+        for (Entity e : island.entities)
+        {
+            if (e instanceof House house && house.isAlive() && !house.isBuilt()) return true;
+        }
+        return false;
+    }
+
+    private static int count(Island island, HouseType type)
+    {
+        int count = 0;
+        for (Entity e : island.entities)
+        {
+            if (e instanceof House house && house.isAlive() && house.getType() == type) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return a command placing the house at the free spot around home
+     *         farthest from the tower. Masons only go where the tower is the
+     *         nearest rock, so their workers mine it, and other houses keep
+     *         off those spots while there are others.
+     */
+    private Command near(Island island, Tower tower, HouseType type)
+    {
+        if (!island.resources.canAfford(type)) return null;
+        boolean mason = type == HouseType.MASON;
+        Command command = near(island, tower, type, mason);
+        return command != null || mason ? command : near(island, tower, type, true);
+    }
+
+    private Command near(Island island, Tower tower, HouseType type, boolean onTowerRock)
+    {
+        double bestX = 0, bestY = 0, best = -1;
+        for (int ring = 0; ring * 5 < HOME_RADIUS; ring++)
+        {
+            int spots = Math.max(1, ring * 6);
+            for (int i = 0; i < spots; i++)
+            {
+                double angle = i * Math.PI * 2 / spots;
+                double x = homeX + Math.cos(angle) * ring * 5;
+                double y = homeY + Math.sin(angle) * ring * 5;
+                double distance = Math.hypot(x - tower.x, y - tower.y);
+                if (distance <= best || !island.canPlaceHouse(x * 2, y, type)) continue;
+                if (onTowerRock != (island.findResourceSource(Resources.ROCK, x, y, Job.Gather.SOURCE_REACH, null) == tower)) continue;
+                best = distance;
+                bestX = x;
+                bestY = y;
+            }
+        }
+        return best < 0 ? null : at(island, type, bestX, bestY);
+    }
+
+    private static Command at(Island island, HouseType type, double x, double y)
+    {
+        // Screen coordinates at rotation 0, as Island.placeHouse expects
+        if (!island.canPlaceHouse(x * 2, y, type)) return null;
+        return new Command.PlaceHouse(x * 2, y, 0, indexOf(type));
+    }
+}
@@ -0,0 +1,238 @@
+package com.mojang.tower;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs many seeded headless games in parallel and collects their outcomes.
+ *
+ * Every game is a {@link HeadlessRunner} with its own WorldContext, run in
+ * this JVM on a virtual thread; a semaphore keeps at most one game per
+ * worker slot running. The simulation never blocks, so each running game
+ * keeps its carrier thread busy until it finishes.
+ *
+ * Per-run results go to a CSV file, and the summary reports the wins and
+ * runs per second. To see how the batch scales, {@link #scaling} times the
+ * same seeds at several worker counts against a single worker.
+ *
+ * <pre>
+ * java -cp target/classes com.mojang.tower.BatchRunner --runs 200 --ticks 20000 --out results.csv
+ * java -cp target/classes com.mojang.tower.BatchRunner --runs 16 --ticks 60000 --play
+ * java -cp target/classes com.mojang.tower.BatchRunner --runs 16 --scaling 1,2,4,8
+ * </pre>
+ */
+public final class BatchRunner
+{
+    private record Run(HeadlessRunner.Result result, long wallNanos)
+    {
+    }
+
+    private record Batch(List<Run> runs, long wallNanos)
+    {
+        double runsPerSecond()
+        {
+            return runs.size() * 1e9 / Math.max(wallNanos, 1);
+        }
+    }
+
+    private static final PrintStream NO_OUTPUT = new PrintStream(PrintStream.nullOutputStream());
+
+    private final int workers;
+    private final int ticks;
+    private boolean playing;
+
+    public BatchRunner(int workers, int ticks)
+    {
+        this.workers = workers;
+        this.ticks = ticks;
+    }
+
+    /**
+     * Let an {@link AutoPlayer} play every game, see {@link HeadlessRunner#setPlaying}.
+     */
+    public void setPlaying(boolean playing)
+    {
+        this.playing = playing;
+    }
+
+    /**
+     * Run seeds {@code firstSeed .. firstSeed + runs - 1} and write one CSV row per run, in seed order.
+     * @param csv results file
+     * @param out receives the summary
+     */
+    public void run(long firstSeed, int runs, Path csv, PrintStream out) throws IOException, InterruptedException
+    {
+        Batch batch = execute(firstSeed, runs);
+
+        long runNanos = 0;
+        long simTicks = 0;
+        int wins = 0;
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8)))
+        {
+            writer.println(HeadlessRunner.Result.CSV_HEADER);
+            for (Run run : batch.runs())
+            {
+                writer.println(run.result().toCsv());
+                runNanos += run.wallNanos();
+                simTicks += run.result().ticks();
+                if (run.result().won()) wins++;
+            }
+        }
+
+        double seconds = batch.wallNanos() / 1e9;
+        out.printf("%d runs in %.1f s: %.2f runs/s, %d won, results in %s%n", runs, seconds, batch.runsPerSecond(), wins, csv);
+        out.printf("%d workers on %d cores: %.2f runs/s per worker%n",
+            workers, Runtime.getRuntime().availableProcessors(), batch.runsPerSecond() / workers);
+        out.printf("simulation: %.0f ticks/s per run, %.0f ticks/s aggregate%n",
+            simTicks * 1e9 / Math.max(runNanos, 1), simTicks / seconds);
+    }
+
+    /**
+     * Run the same seeds once per worker count and print the runs per
+     * second of each, with the speedup over one worker. The one-worker
+     * batch runs first, as the baseline, whether or not it is listed.
+     */
+    public static void scaling(long firstSeed, int runs, int ticks, boolean playing, int[] workerCounts, PrintStream out)
+        throws IOException, InterruptedException
+    {
+        double baseline = runsPerSecond(firstSeed, runs, ticks, playing, 1);
+        out.printf("1 workers: %.2f runs/s, 1.00x over 1 worker%n", baseline);
+        for (int workers : workerCounts)
+        {
+            if (workers == 1) continue;
+            double runsPerSecond = runsPerSecond(firstSeed, runs, ticks, playing, workers);
+            out.printf("%d workers: %.2f runs/s, %.2fx over 1 worker%n", workers, runsPerSecond, runsPerSecond / baseline);
+        }
+    }
+
+    private static double runsPerSecond(long firstSeed, int runs, int ticks, boolean playing, int workers)
+        throws IOException, InterruptedException
+    {
+        BatchRunner runner = new BatchRunner(workers, ticks);
+        runner.setPlaying(playing);
+        return runner.execute(firstSeed, runs).runsPerSecond();
+    }
+
+    /**
+     * @return the runs in seed order, and the wall time of the whole batch
+     */
+    private Batch execute(long firstSeed, int runs) throws IOException, InterruptedException
+    {
+        Semaphore slots = new Semaphore(workers);
+        List<Future<Run>> futures = new ArrayList<>(runs);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (int i = 0; i < runs; i++)
+            {
+                long seed = firstSeed + i;
+                futures.add(executor.submit(() -> {
+                    slots.acquire();
+                    try
+                    {
+                        return runGame(seed);
+                    }
+                    finally
+                    {
+                        slots.release();
+                    }
+                }));
+            }
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        List<Run> results = new ArrayList<>(runs);
+        for (Future<Run> future : futures)
+        {
+            try
+            {
+                results.add(future.get());
+            }
+            catch (ExecutionException e)
+            {
+                throw new IOException("Run failed", e.getCause());
+            }
+        }
+        return new Batch(results, wallNanos);
+    }
+
+    private Run runGame(long seed) throws IOException
+    {
+        long start = System.nanoTime();
+        HeadlessRunner runner = new HeadlessRunner(seed);
+        runner.setPlaying(playing);
+        HeadlessRunner.Result result = runner.run(ticks, 0, 0, NO_OUTPUT);
+        return new Run(result, System.nanoTime() - start);
+    }
+
+    private static void usage()
+    {
+        System.err.println("Usage: BatchRunner [--runs N] [--seed N] [--ticks N] [--workers N] [--out FILE] [--play] [--scaling N,N,...]");
+        System.err.println("  --runs N     number of games (default 100)");
+        System.err.println("  --seed N     seed of the first game; the rest count up (default 1)");
+        System.err.println("  --ticks N    tick limit per game (default 18000)");
+        System.err.println("  --workers N  games running at once (default: available cores)");
+        System.err.println("  --out FILE   CSV results file (default batch-results.csv)");
+        System.err.println("  --play       let the scripted player play every game");
+        System.err.println("  --scaling N,N,...  instead of writing results, time the batch at each worker count against one worker");
+        System.exit(2);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        int runs = 100;
+        long seed = 1;
+        int ticks = TowerComponent.TICKS_PER_SECOND * 60 * 10;
+        int workers = Runtime.getRuntime().availableProcessors();
+        Path out = Path.of("batch-results.csv");
+        boolean play = false;
+        int[] scaling = null;
+
+        try
+        {
+            for (int i = 0; i < args.length; i++)
+            {
+                switch (args[i])
+                {
+                    case "--runs" -> runs = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--ticks" -> ticks = Integer.parseInt(args[++i]);
+                    case "--workers" -> workers = Integer.parseInt(args[++i]);
+                    case "--out" -> out = Path.of(args[++i]);
+                    case "--play" -> play = true;
+                    case "--scaling" -> scaling = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                    default -> usage();
+                }
+            }
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e)
+        {
+            usage();
+        }
+        if (runs < 1 || ticks < 0 || workers < 1 || scaling != null && Arrays.stream(scaling).anyMatch(w -> w < 1)) usage();
+
+        if (scaling != null)
+        {
+            scaling(seed, runs, ticks, play, scaling, System.out);
+            return;
+        }
+        BatchRunner runner = new BatchRunner(workers, ticks);
+        runner.setPlaying(play);
+        runner.run(seed, runs, out, System.out);
+    }
+}
@@ -135,7 +135,7 @@ public class Bitmaps
         }
     }
 
-    private BufferedImage loadImage(String name) throws IOException
+    private static BufferedImage loadImage(String name) throws IOException
     {
         if (resPath != null)
         {
@@ -198,10 +198,20 @@ public class Bitmaps
         for (int i=0; i<5; i++)
             infoPuffs[i] = clip(src, 256-8-16, i*8, 16, 8);
         
-        island = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
+        island = loadIsland();
+    }
+
+    /**
+     * Load the island shape as a 256x256 INT_ARGB image, the format Island
+     * reads ground from. Needs no display, so headless runs can use it.
+     */
+    public static BufferedImage loadIsland() throws IOException
+    {
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
         int[] pixels = new int[256*256];
         loadImage("island.gif").getRGB(0, 0, 256, 256, pixels, 0, 256);
-        island.setRGB(0, 0, 256, 256, pixels, 0, 256);
+        image.setRGB(0, 0, 256, 256, pixels, 0, 256);
+        return image;
     }
 
     public static BufferedImage clip(BufferedImage src, int x, int y, int w, int h)
@@ -0,0 +1,51 @@
+package com.mojang.tower;
+
+/**
+ * A player action that changes the simulation. The game applies every
+ * click through a command, between island ticks, and logs it so a session
+ * can be replayed (see CommandLog and Replay).
+ *
+ * Commands carry everything the simulation needs to apply them the same
+ * way again, never screen or UI state that is not part of a snapshot.
+ */
+public sealed interface Command
+{
+    void apply(Island island);
+
+    /**
+     * Place a house where the player clicked.
+     * @param x click position relative to the island centre, in screen pixels
+     * @param y click position relative to the island centre, in screen pixels
+     * @param rot island rotation when the player clicked
+     * @param houseType index into {@link HouseType#houseTypes}
+     */
+    record PlaceHouse(double x, double y, double rot, int houseType) implements Command
+    {
+        @Override
+        public void apply(Island island)
+        {
+            island.rot = rot;
+            island.placeHouse(x, y, HouseType.houseTypes[houseType]);
+        }
+    }
+
+    /**
+     * Sell a house, refunding part of its cost.
+     * @param houseId the house's entity id
+     */
+    record SellHouse(int houseId) implements Command
+    {
+        @Override
+        public void apply(Island island)
+        {
+            for (Entity e : island.entities)
+            {
+                if (e.getId() == houseId && e instanceof House house && house.isAlive())
+                {
+                    house.sell();
+                    return;
+                }
+            }
+        }
+    }
+}
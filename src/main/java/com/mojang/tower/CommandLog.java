@@ -0,0 +1,167 @@
+package com.mojang.tower;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records a play session as its starting point plus every player command
+ * with the island tick it was applied at. The simulation is deterministic,
+ * so that is enough for {@link Replay} to play the whole session again.
+ *
+ * A session starts either from a world seed on a fresh island or from a
+ * snapshot, e.g. after loading a quicksave. Each command is flushed as it
+ * is logged, so a log survives the game crashing; closing the log also
+ * records the tick the session ended at.
+ *
+ * Layout (big-endian): magic, version, seed, snapshot length and bytes
+ * (length 0 for none), then records of a tag byte, the tick and the
+ * command's fields. Tag 0 ends the session.
+ */
+public final class CommandLog implements AutoCloseable
+{
+    public static final int MAGIC = 0x43525754; // "TWRC"
+    public static final int VERSION = 1;
+
+    private static final int END = 0;
+    private static final int PLACE_HOUSE = 1;
+    private static final int SELL_HOUSE = 2;
+
+    /**
+     * A command and the number of island ticks run before it was applied.
+     */
+    public record Entry(int tick, Command command)
+    {
+    }
+
+    /**
+     * A logged session.
+     * @param snapshot starting point, or null to start a fresh island from the seed
+     * @param endTick tick the session ended at, or -1 if the log was not closed
+     */
+    public record Session(long seed, ByteBuffer snapshot, List<Entry> commands, int endTick)
+    {
+    }
+
+    private final DataOutputStream out;
+    private final Island island;
+
+    /**
+     * Start logging a session on an island that was just created from
+     * {@code seed}, or restored from {@code snapshot}.
+     * @param snapshot the snapshot the island was restored from, or null
+     */
+    public CommandLog(Path file, long seed, ByteBuffer snapshot, Island island) throws IOException
+    {
+        this.island = island;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(seed);
+        if (snapshot == null)
+        {
+            out.writeInt(0);
+        }
+        else
+        {
+            ByteBuffer bytes = snapshot.duplicate();
+            out.writeInt(bytes.remaining());
+            while (bytes.hasRemaining())
+            {
+                out.write(bytes.get());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Log a command that is about to be applied to the island.
+     */
+    public void append(Command command) throws IOException
+    {
+        switch (command)
+        {
+            case Command.PlaceHouse c ->
+            {
+                out.writeByte(PLACE_HOUSE);
+                out.writeInt(island.getTickCount());
+                out.writeDouble(c.x());
+                out.writeDouble(c.y());
+                out.writeDouble(c.rot());
+                out.writeByte(c.houseType());
+            }
+            case Command.SellHouse c ->
+            {
+                out.writeByte(SELL_HOUSE);
+                out.writeInt(island.getTickCount());
+                out.writeInt(c.houseId());
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        out.writeByte(END);
+        out.writeInt(island.getTickCount());
+        out.close();
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a command log
+     */
+    public static Session read(Path file) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if (in.readInt() != MAGIC) throw new IOException("Not a command log: " + file);
+            int version = in.readShort();
+            if (version != VERSION) throw new IOException("Unsupported command log version " + version);
+            long seed = in.readLong();
+            int snapshotLength = in.readInt();
+            ByteBuffer snapshot = null;
+            if (snapshotLength > 0)
+            {
+                byte[] bytes = new byte[snapshotLength];
+                in.readFully(bytes);
+                snapshot = ByteBuffer.wrap(bytes);
+            }
+
+            List<Entry> commands = new ArrayList<>();
+            while (true)
+            {
+                int tag;
+                try
+                {
+                    tag = in.readByte();
+                }
+                catch (EOFException e)
+                {
+                    // The game did not close the log, e.g. it crashed
+                    return new Session(seed, snapshot, commands, -1);
+                }
+                int tick = in.readInt();
+                switch (tag)
+                {
+                    case END ->
+                    {
+                        return new Session(seed, snapshot, commands, tick);
+                    }
+                    case PLACE_HOUSE -> commands.add(new Entry(tick,
+                        new Command.PlaceHouse(in.readDouble(), in.readDouble(), in.readDouble(), in.readByte())));
+                    case SELL_HOUSE -> commands.add(new Entry(tick, new Command.SellHouse(in.readInt())));
+                    default -> throw new IOException("Unknown command tag " + tag);
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.mojang.tower;
 
 import java.awt.Graphics2D;
-import java.util.Random;
+
+import com.mojang.tower.movement.MovementBatch;
+import com.mojang.tower.timer.Timer;
 
 public sealed class Entity implements Comparable<Entity>
     permits FarmPlot, House, InfoPuff, Monster, Peon, Puff, Rock, Tower, Tree
@@ -12,7 +14,7 @@ public sealed class Entity implements Comparable<Entity>
      * Package-private for test access.
      */
     static Long testSeedBase = null;
-    private static int testSeedCounter = 0;
+    static int testSeedCounter = 0;
 
     /**
      * Resets the test seed mechanism. Call before each test run.
@@ -27,14 +29,34 @@ public sealed class Entity implements Comparable<Entity>
 
     protected Island island;
     protected Bitmaps bitmaps;
-    protected Random random = createRandom();
+    protected WorldContext world;
+    protected SimRandom random = WorldContext.newEntityRandom();
     protected boolean alive = true;
 
-    private static Random createRandom() {
+    /** Assigned by Island.addEntity in insertion order; -1 until then. */
+    int id = -1;
+
+    /**
+     * Dormant entities are skipped by Island.tick until woken, either by
+     * their wake timer or by an explicit {@link #wake()}.
+     */
+    boolean dormant = false;
+
+    /**
+     * Island ticks covered by the current tick. Above 1 when the island runs
+     * this entity at reduced detail; see {@link Island#setFocus}.
+     */
+    int lodStep = 1;
+    private Timer wakeTimer;
+
+    /**
+     * Seeding for entities created outside any world (see WorldContext).
+     */
+    static SimRandom createLegacyRandom() {
         if (testSeedBase != null) {
-            return new Random(testSeedBase + testSeedCounter++);
+            return new SimRandom(testSeedBase + testSeedCounter++);
         }
-        return new Random();
+        return new SimRandom();
     }
 
     public Entity(double x, double y, double r)
@@ -44,6 +66,14 @@ public sealed class Entity implements Comparable<Entity>
         this.r = r;
     }
 
+    /**
+     * @return stable per-island id, or -1 if not yet added to an island
+     */
+    public int getId()
+    {
+        return id;
+    }
+
     public void updatePos(double sin, double cos, double alpha)
     {
         xr = x * cos + y * sin;
@@ -53,6 +83,7 @@ public sealed class Entity implements Comparable<Entity>
     public void init(Island island, Bitmaps bitmaps)
     {
         this.island = island;
+        this.world = island.world();
         this.bitmaps = bitmaps;
     }
 
@@ -60,11 +91,111 @@ public sealed class Entity implements Comparable<Entity>
     {
     }
 
+    /**
+     * First half of a tick, up to the entity's move. Agents queue their move
+     * in {@code moves}; the island resolves all queued moves in one pass and
+     * then calls {@link #finishTick}. Entities that do not move just tick.
+     */
+    void planTick(MovementBatch moves)
+    {
+        tick();
+    }
+
+    /**
+     * Second half of an agent's tick, once the move it queued in
+     * {@code slot} has been resolved.
+     */
+    void finishTick(MovementBatch moves, int slot)
+    {
+    }
+
+    /**
+     * Run both halves of an agent's tick, resolving its move on its own.
+     * For agents ticked outside the island's loop, e.g. as they are added.
+     */
+    protected final void tickAlone()
+    {
+        MovementBatch moves = new MovementBatch(1);
+        planTick(moves);
+        if (moves.size() == 0) return;
+        world.movement().moveAll(moves);
+        finishTick(moves, 0);
+    }
+
     public boolean isAlive()
     {
         return alive;
     }
 
+    /**
+     * Skip the next {@code ticks} island ticks. Only for entities whose tick
+     * would do nothing observable in the meantime.
+     */
+    protected void sleep(int ticks)
+    {
+        if (wakeTimer == null) wakeTimer = new Timer(this::wake);
+        dormant = true;
+        island.schedule(wakeTimer, ticks + 1);
+    }
+
+    /**
+     * Stop ticking until {@link #wake()} is called.
+     */
+    protected void sleepForever()
+    {
+        if (wakeTimer != null) wakeTimer.cancel();
+        dormant = true;
+    }
+
+    /**
+     * Resume ticking from the next island tick (or the current one, if the
+     * island has not reached this entity yet).
+     */
+    public void wake()
+    {
+        if (wakeTimer != null) wakeTimer.cancel();
+        dormant = false;
+    }
+
+    public boolean isDormant()
+    {
+        return dormant;
+    }
+
+    /**
+     * Save this entity's state, see {@link Snapshot}. Subclasses append
+     * their own fields after calling super.
+     */
+    void writeState(SnapshotWriter out)
+    {
+        out.putInt(id);
+        out.putDouble(x);
+        out.putDouble(y);
+        out.putDouble(r);
+        out.putBoolean(alive);
+        out.putBoolean(dormant);
+        out.putInt(lodStep);
+        random.write(out);
+        out.putTimer(wakeTimer);
+    }
+
+    /**
+     * Restore the state saved by {@link #writeState}, before the entity is
+     * put back on its island.
+     */
+    void readState(SnapshotReader in)
+    {
+        id = in.getInt();
+        x = in.getDouble();
+        y = in.getDouble();
+        r = in.getDouble();
+        alive = in.getBoolean();
+        dormant = in.getBoolean();
+        lodStep = in.getInt();
+        random.read(in);
+        wakeTimer = in.getTimer(wakeTimer, this::wake);
+    }
+
     public boolean collides(Entity e)
     {
         return collides(e.x, e.y, e.r);
@@ -95,6 +226,16 @@ public sealed class Entity implements Comparable<Entity>
         return xd * xd + yd * yd;
     }
 
+    /**
+     * @return true for entities that walk about on their own; movement lets
+     *         them side-step each other, and the island ticks them at
+     *         reduced detail outside its focus
+     */
+    public boolean isAgent()
+    {
+        return false;
+    }
+
     public boolean givesResource(int resourceId)
     {
         return false;
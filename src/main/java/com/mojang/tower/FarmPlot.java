@@ -15,6 +15,13 @@ public final class FarmPlot extends Entity
         this.yield = this.stamina = this.age = age;
     }
 
+    public void init(Island island, Bitmaps bitmaps)
+    {
+        super.init(island, bitmaps);
+        // Only a plot restored from a snapshot can already be grown
+        if (givesResource(Resources.FOOD)) island.addResourceSource(Resources.FOOD, this);
+    }
+
     public void tick()
     {
         if (age < 7 * GROW_SPEED)
@@ -23,6 +30,28 @@ public final class FarmPlot extends Entity
             stamina++;
             yield++;
         }
+        if (age >= 7 * GROW_SPEED)
+        {
+            // Fully grown: nothing left to simulate until harvested
+            island.addResourceSource(Resources.FOOD, this);
+            sleepForever();
+        }
+    }
+
+    void writeState(SnapshotWriter out)
+    {
+        super.writeState(out);
+        out.putInt(age);
+        out.putInt(stamina);
+        out.putInt(yield);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        age = in.getInt();
+        stamina = in.getInt();
+        yield = in.getInt();
     }
 
     public void render(Graphics2D g, double alpha)
@@ -0,0 +1,287 @@
+package com.mojang.tower;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import com.mojang.tower.event.EffectEvent;
+import com.mojang.tower.event.EventJournal;
+import com.mojang.tower.event.InfoPuffEffect;
+import com.mojang.tower.event.PuffEffect;
+import com.mojang.tower.movement.MovementSystem;
+
+/**
+ * Runs the island simulation without a window or sound.
+ *
+ * The same seed always produces the same game. The runner either paces
+ * itself like the real game (30 ticks per second times a speed multiplier)
+ * or runs as fast as the machine allows. By default nobody places houses,
+ * so this is the idle island, useful for profiling and soak runs. With
+ * {@link #setPlaying} an {@link AutoPlayer} plays the island instead, so
+ * runs can be won and scored.
+ *
+ * Each runner simulates its island in its own WorldContext, so several
+ * runners can run at once on different threads.
+ *
+ * <pre>
+ * java -cp target/classes com.mojang.tower.HeadlessRunner --seed 7 --ticks 100000 --fast
+ * java -cp target/classes com.mojang.tower.HeadlessRunner --seed 6 --ticks 60000 --play
+ * </pre>
+ */
+public final class HeadlessRunner
+{
+    /**
+     * Outcome of one run.
+     * @param ticks island ticks simulated
+     * @param score win score, or 0 if the tower is still standing
+     */
+    public record Result(long seed, int ticks, boolean won, int score, int peakPopulation, long elapsedNanos)
+    {
+        public static final String CSV_HEADER = "seed,ticks,won,score,peak_population,elapsed_ms";
+
+        public double ticksPerSecond()
+        {
+            return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+        }
+
+        public String toCsv()
+        {
+            return seed + "," + ticks + "," + won + "," + score + "," + peakPopulation + "," + elapsedNanos / 1_000_000;
+        }
+    }
+
+    private final long seed;
+    private Path journalDirectory;
+    private double focusX, focusY, focusRadius;
+    private int focusCadence = 1;
+    private boolean playing;
+    private AutoPlayer player;
+    private WorldContext world;
+    private Island island;
+    private boolean won = false;
+    private int peakPopulation = 0;
+
+    public HeadlessRunner(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Record every event of the following runs in an event journal.
+     * @param directory journal directory, or null for none
+     */
+    public void setJournal(Path directory)
+    {
+        this.journalDirectory = directory;
+    }
+
+    /**
+     * Simulate peons and monsters outside a focus region at reduced detail in
+     * the following runs, see {@link Island#setFocus}.
+     * @param cadence ticks per reduced-detail tick; 1 runs everything at full detail
+     */
+    public void setFocus(double x, double y, double radius, int cadence)
+    {
+        if (cadence < 1) throw new IllegalArgumentException("cadence must be at least 1: " + cadence);
+        focusX = x;
+        focusY = y;
+        focusRadius = radius;
+        focusCadence = cadence;
+    }
+
+    /**
+     * Let an {@link AutoPlayer} place houses in the following runs, instead
+     * of leaving the island idle. The island then starts beside the tower,
+     * with the player's starting stock.
+     */
+    public void setPlaying(boolean playing)
+    {
+        this.playing = playing;
+    }
+
+    /**
+     * Simulate up to {@code maxTicks} island ticks, stopping early if the tower falls.
+     * @param speed multiple of real-time pace, or 0 to run unbounded
+     * @param progressInterval ticks between progress lines, or 0 for none
+     * @param out receives progress lines
+     */
+    public Result run(int maxTicks, int speed, int progressInterval, PrintStream out) throws IOException
+    {
+        setUp();
+        EventJournal journal = null;
+        if (journalDirectory != null)
+        {
+            journal = new EventJournal(journalDirectory, island::getTickCount);
+            world.events().tap(journal);
+        }
+        try
+        {
+            return simulate(maxTicks, speed, progressInterval, out);
+        }
+        finally
+        {
+            if (journal != null) journal.close();
+        }
+    }
+
+    private Result simulate(int maxTicks, int speed, int progressInterval, PrintStream out)
+    {
+        long start = System.nanoTime();
+        long nanosPerTick = speed > 0 ? 1_000_000_000L / (TowerComponent.TICKS_PER_SECOND * speed) : 0;
+        int tick = 0;
+        while (tick < maxTicks && !won)
+        {
+            if (player != null)
+            {
+                Command command = player.next(island, tick);
+                if (command != null) command.apply(island);
+            }
+            island.tick();
+            tick++;
+            peakPopulation = Math.max(peakPopulation, island.population);
+
+            if (progressInterval > 0 && tick % progressInterval == 0)
+            {
+                out.println(progressLine(tick, System.nanoTime() - start));
+            }
+            if (nanosPerTick > 0)
+            {
+                pace(start + tick * nanosPerTick);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        return new Result(seed, tick, won, won ? TowerComponent.winScore(tick) : 0, peakPopulation, elapsed);
+    }
+
+    public Island getIsland()
+    {
+        return island;
+    }
+
+    public WorldContext getWorld()
+    {
+        return world;
+    }
+
+    private void setUp() throws IOException
+    {
+        // Entities and jobs draw their random seeds from the world seed
+        world = new WorldContext(seed);
+        island = new Island(world, new Bitmaps(), Bitmaps.loadIsland(), () -> won = true,
+            playing ? Island.Start.BESIDE_TOWER : Island.Start.HOME);
+        if (focusCadence > 1) island.setFocus(focusX, focusY, focusRadius, focusCadence);
+        player = null;
+        if (playing)
+        {
+            player = new AutoPlayer();
+            island.resources.wood = island.resources.rock = island.resources.food = AutoPlayer.STARTING_STOCK;
+        }
+
+        world.events().register(EffectEvent.class, event -> {
+            switch (event)
+            {
+                case PuffEffect(var x, var y) -> island.addEntity(new Puff(x, y));
+                case InfoPuffEffect(var x, var y, var img) -> island.addEntity(new InfoPuff(x, y, img));
+            }
+        });
+    }
+
+    private String progressLine(int tick, long elapsedNanos)
+    {
+        return String.format("tick %d: pop %d/%d, warriors %d/%d, monsters %d, wood %d, rock %d, food %d, entities %d, %.0f ticks/s",
+            tick, island.population, island.populationCap, island.warriorPopulation, island.warriorPopulationCap,
+            island.monsterPopulation, island.resources.wood, island.resources.rock, island.resources.food,
+            island.entities.size(), tick * 1e9 / Math.max(elapsedNanos, 1));
+    }
+
+    private static void pace(long deadline)
+    {
+        long wait = deadline - System.nanoTime();
+        if (wait <= 0) return;
+        try
+        {
+            Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void usage()
+    {
+        System.err.println("Usage: HeadlessRunner [--seed N] [--ticks N] [--fast | --speed N] [--progress N] [--journal DIR] [--focus X,Y,R,N] [--play]");
+        System.err.println("  --seed N      world seed (default 42)");
+        System.err.println("  --ticks N     ticks to simulate, stopping early on a win (default 18000)");
+        System.err.println("  --fast        run as fast as possible (default)");
+        System.err.println("  --speed N     pace at N times real time (30 ticks per second)");
+        System.err.println("  --progress N  print a progress line every N ticks (default 1000, 0 = off)");
+        System.err.println("  --journal DIR record every event in an event journal in DIR");
+        System.err.println("  --focus X,Y,R,N  run peons and monsters farther than R from (X, Y) once every N ticks");
+        System.err.println("  --play        let the scripted player play the island, started beside the tower");
+        System.exit(2);
+    }
+
+    /**
+     * @return x, y, radius and cadence
+     * @throws NumberFormatException if the argument is not X,Y,R,N
+     */
+    private static double[] parseFocus(String arg)
+    {
+        String[] f = arg.split(",");
+        if (f.length != 4) throw new NumberFormatException("Not X,Y,R,N: " + arg);
+        return new double[] { Double.parseDouble(f[0]), Double.parseDouble(f[1]), Double.parseDouble(f[2]), Integer.parseInt(f[3]) };
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        long seed = 42;
+        int ticks = TowerComponent.TICKS_PER_SECOND * 60 * 10;
+        int speed = 0;
+        int progress = 1000;
+        Path journal = null;
+        double[] focus = null;
+        boolean play = false;
+
+        try
+        {
+            for (int i = 0; i < args.length; i++)
+            {
+                switch (args[i])
+                {
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--ticks" -> ticks = Integer.parseInt(args[++i]);
+                    case "--fast" -> speed = 0;
+                    case "--speed" -> speed = Integer.parseInt(args[++i]);
+                    case "--progress" -> progress = Integer.parseInt(args[++i]);
+                    case "--journal" -> journal = Path.of(args[++i]);
+                    case "--focus" -> focus = parseFocus(args[++i]);
+                    case "--play" -> play = true;
+                    default -> usage();
+                }
+            }
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e)
+        {
+            usage();
+        }
+        if (ticks < 0 || speed < 0 || progress < 0 || focus != null && focus[3] < 1) usage();
+
+        HeadlessRunner runner = new HeadlessRunner(seed);
+        runner.setJournal(journal);
+        if (focus != null) runner.setFocus(focus[0], focus[1], focus[2], (int) focus[3]);
+        runner.setPlaying(play);
+        Result result = runner.run(ticks, speed, progress, System.out);
+        MovementSystem movement = runner.getWorld().movement();
+
+        System.out.printf("seed %d: %d ticks in %.2f s (%.0f ticks/s)%n",
+            result.seed(), result.ticks(), result.elapsedNanos() / 1e9, result.ticksPerSecond());
+        System.out.println(result.won() ? "tower destroyed, score " + result.score() : "tower still standing");
+        System.out.printf("peak population %d; moves %d, side-steps %d, blocked %d; path requests %d%n",
+            result.peakPopulation(), movement.getMovedCount(), movement.getAvoidedCount(),
+            movement.getBlockedCount(), runner.getWorld().pathfinding().getRequestCount());
+    }
+}
@@ -2,8 +2,8 @@ package com.mojang.tower;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.util.List;
 
-import com.mojang.tower.event.EventBus;
 import com.mojang.tower.event.DestroySound;
 import com.mojang.tower.event.FinishBuildingSound;
 import com.mojang.tower.event.GatherSound;
@@ -17,6 +17,14 @@ public final class House extends Entity
     public static final int FOOD_PER_PEON = 5;
     public static final int WOOD_PER_WARRIOR = 5;
 
+    private static final TargetFilter NO_MOB_FILTER = new TargetFilter()
+    {
+        public boolean accepts(Entity e)
+        {
+            return !(e instanceof Peon || e instanceof Monster);
+        }
+    };
+
     private HouseType type;
     private int buildTime;
     private int buildDuration = 32 * 6;
@@ -30,6 +38,22 @@ public final class House extends Entity
         this.type = type;
     }
 
+    public void init(Island island, Bitmaps bitmaps)
+    {
+        super.init(island, bitmaps);
+        island.addMonsterTarget(this);
+    }
+
+    public HouseType getType()
+    {
+        return type;
+    }
+
+    public boolean isBuilt()
+    {
+        return buildTime >= buildDuration;
+    }
+
     public void fight(Monster monster)
     {
         if (hp <= 0) return;
@@ -41,7 +65,7 @@ public final class House extends Entity
 
     public void die()
     {
-        EventBus.publish(new DestroySound());
+        world.events().dispatch(DestroySound.INSTANCE);
         if (type == HouseType.RESIDENCE)
         {
             island.populationCap -= POPULATION_PER_RESIDENCE;
@@ -68,7 +92,7 @@ public final class House extends Entity
     {
         if (buildTime >= buildDuration && type.acceptResource == resourceId)
         {
-            EventBus.publish(new GatherSound());
+            world.events().dispatch(GatherSound.INSTANCE);
             puff();
             return true;
         }
@@ -84,7 +108,7 @@ public final class House extends Entity
             if (hp > maxHp) hp = maxHp;
             if (buildTime == buildDuration)
             {
-                EventBus.publish(new FinishBuildingSound());
+                world.events().dispatch(FinishBuildingSound.INSTANCE);
                 if (type == HouseType.RESIDENCE)
                 {
                     island.populationCap += POPULATION_PER_RESIDENCE;
@@ -103,14 +127,9 @@ public final class House extends Entity
         animFrame++;
         if (buildTime < buildDuration)
         {
-            for (int i = 0; i < 2; i++)
-            {
-                Peon peon = getRandomPeon(100, 80, true);
-                if (peon != null && peon.job == null)
-                {
-                    peon.setJob(new Job.Build(this));
-                }
-            }
+            // Up to two builders per tick
+            island.dispatcher.post(this, JobDispatcher.Work.BUILD);
+            island.dispatcher.post(this, JobDispatcher.Work.BUILD);
         }
         else
         {
@@ -119,56 +138,24 @@ public final class House extends Entity
                 hp++;
             }
 
-            Peon peon = getRandomPeon(50, 50, true);
-            if (peon != null && peon.job == null && peon.type == 0)
+            if (type == HouseType.MASON || type == HouseType.WOODCUTTER || type == HouseType.WINDMILL)
             {
-                TargetFilter noMobFilter = new TargetFilter()
-                {
-                    public boolean accepts(Entity e)
-                    {
-                        return !(e instanceof Peon || e instanceof Monster);
-                    }                    
-                };
-                if (type == HouseType.MASON)
-                {
-                    peon.setJob(new Job.Gather(Resources.ROCK, this));
-                }
-                else if (type == HouseType.WOODCUTTER)
-                {
-                    peon.setJob(new Job.Gather(Resources.WOOD, this));
-                }
-                else if (type == HouseType.WINDMILL)
-                {
-                    peon.setJob(new Job.Gather(Resources.FOOD, this));
-                }
-                else if (type == HouseType.PLANTER)
-                {
-                    if (getRandomTarget(6, 40, noMobFilter)==null)
-                        peon.setJob(new Job.Plant(this, 0));
-                }
-                else if (type == HouseType.FARM)
-                {
-                    if (getRandomTarget(6, 40, noMobFilter)==null)
-                        peon.setJob(new Job.Plant(this, 1));
-                }
+                island.dispatcher.post(this, JobDispatcher.Work.GATHER);
+            }
+            else if (type == HouseType.PLANTER || type == HouseType.FARM)
+            {
+                if (island.dispatcher.hasIdlePeons() && getRandomTarget(6, 40, NO_MOB_FILTER) == null)
+                    island.dispatcher.post(this, JobDispatcher.Work.PLANT);
             }
 
-            if (type == HouseType.GUARDPOST)
+            if (type == HouseType.GUARDPOST && island.dispatcher.hasIdlePeons() && random.nextInt(2) == 0)
             {
-                peon = getRandomPeon(80, 80, true);
-                if (peon != null && peon.job == null && (peon.type==0 && random.nextInt(2)==0))
-                {
-                    peon.setJob(new Job.Goto(this));
-                }
+                island.dispatcher.post(this, JobDispatcher.Work.GUARD);
             }
 
             if (type == HouseType.BARRACKS && island.warriorPopulation < island.warriorPopulationCap && island.resources.wood >= WOOD_PER_WARRIOR)
             {
-                peon = getRandomPeon(80, 80, true);
-                if (peon != null && peon.job == null && peon.type == 0)
-                {
-                    peon.setJob(new Job.GotoAndConvert(this));
-                }
+                island.dispatcher.post(this, JobDispatcher.Work.CONVERT);
             }
 
             if (type == HouseType.RESIDENCE && island.population < island.populationCap && island.resources.food >= FOOD_PER_PEON && random.nextInt(20) == 0)
@@ -176,13 +163,13 @@ public final class House extends Entity
                 double xt = x + (random.nextDouble() * 2 - 1) * 9;
                 double yt = y + (random.nextDouble() * 2 - 1) * 9;
 
-                peon = new Peon(xt, yt, 0);
+                Peon peon = new Peon(xt, yt, 0);
                 if (island.isFree(peon.x, peon.y, peon.r))
                 {
                     puff();
                     island.resources.food -= FOOD_PER_PEON;
                     island.addEntity(peon);
-                    EventBus.publish(new SpawnSound());
+                    world.events().dispatch(SpawnSound.INSTANCE);
                 }
             }
         }
@@ -200,25 +187,42 @@ public final class House extends Entity
         }
     }
 
-    private Peon getRandomPeon(double r, double s, final boolean mustBeFree)
+    void writeState(SnapshotWriter out)
     {
-        TargetFilter peonFilter = new TargetFilter()
-        {
-            public boolean accepts(Entity e)
-            {
-                if (e instanceof Peon peon) {
-                    return e.isAlive() && (!mustBeFree || peon.job == null);
-                }
-                return false;
-            }
-        };
+        super.writeState(out);
+        out.putByte(List.of(HouseType.houseTypes).indexOf(type));
+        out.putInt(buildTime);
+        out.putInt(buildDuration);
+        out.putInt(animFrame);
+        out.putInt(maxHp);
+        out.putInt(hp);
+    }
 
-        Entity e = getRandomTarget(r, s, peonFilter);
-        if (e instanceof Peon peon)
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        type = HouseType.houseTypes[in.getByte()];
+        buildTime = in.getInt();
+        buildDuration = in.getInt();
+        animFrame = in.getInt();
+        maxHp = in.getInt();
+        hp = in.getInt();
+    }
+
+    /**
+     * Create the job for a work item this house posted, once the dispatcher
+     * has found a peon for it.
+     */
+    Job createJob(JobDispatcher.Work work)
+    {
+        return switch (work)
         {
-            return peon;
-        }
-        return null;
+            case BUILD -> new Job.Build(this);
+            case GATHER -> new Job.Gather(type.acceptResource, this);
+            case PLANT -> new Job.Plant(this, type == HouseType.PLANTER ? 0 : 1);
+            case GUARD -> new Job.Goto(this);
+            case CONVERT -> new Job.GotoAndConvert(this);
+        };
     }
 
     public void render(Graphics2D g, double alpha)
@@ -249,7 +253,8 @@ public final class House extends Entity
 
     public void puff()
     {
-        EventBus.publish(new PuffEffect(x, y));
+        // Stateless events are shared; this one carries a position, so only build it if shown
+        if (world.events().hasListeners(PuffEffect.class)) world.events().dispatch(new PuffEffect(x, y));
     }
 
     public void sell()
@@ -38,6 +38,30 @@ public final class InfoPuff extends Entity
         if (life++ == lifeTime) alive = false;
     }
 
+    void writeState(SnapshotWriter out)
+    {
+        super.writeState(out);
+        out.putDouble(xa);
+        out.putDouble(ya);
+        out.putDouble(za);
+        out.putDouble(z);
+        out.putInt(life);
+        out.putInt(lifeTime);
+        out.putInt(image);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        xa = in.getDouble();
+        ya = in.getDouble();
+        za = in.getDouble();
+        z = in.getDouble();
+        life = in.getInt();
+        lifeTime = in.getInt();
+        image = in.getInt();
+    }
+
     public void render(Graphics2D g, double alpha)
     {
         int x = (int) (xr - 8);
@@ -3,18 +3,35 @@ package com.mojang.tower;
 import java.awt.image.*;
 import java.util.*;
 
-import com.mojang.tower.event.EventBus;
 import com.mojang.tower.event.PlantSound;
+import com.mojang.tower.movement.MovementBatch;
+import com.mojang.tower.navigation.CollisionProbe;
 import com.mojang.tower.navigation.NavigationGrid;
+import com.mojang.tower.spatial.SpatialIndex;
+import com.mojang.tower.timer.Timer;
+import com.mojang.tower.timer.TimerWheel;
 
-public class Island implements NavigationGrid
+public final class Island implements NavigationGrid
 {
-    private TowerComponent tower;
+    /**
+     * Where the first guardpost and peons are placed.
+     */
+    public enum Start
+    {
+        /** The game's own starting point, a long walk from the tower */
+        HOME,
+        /** The nearest clearing to the tower, for short scripted games */
+        BESIDE_TOWER
+    }
+
+    private final WorldContext world;
+    private final Bitmaps bitmaps;
+    private final Runnable onWin;
     public BufferedImage image;
     private int[] pixels;
 
     List<Entity> entities = new ArrayList<>();
-    private Random random = new Random(8844);
+    private final SimRandom random = new SimRandom(8844);
 
     public Resources resources = new Resources();
 
@@ -26,13 +43,97 @@ public class Island implements NavigationGrid
     public int warriorPopulation = 0;
     public int warriorPopulationCap = 0;
 
+    private int tickCount = 0;
+    private TimerWheel timers = new TimerWheel();
+    private final MovementBatch moves = new MovementBatch(64);
+    private int nextEntityId = 0;
+
+    // Level-of-detail focus region; agents outside it tick every lodCadence ticks
+    private double focusX, focusY, focusRadius;
+    private int lodCadence = 1;
+
+    final JobDispatcher dispatcher = new JobDispatcher();
+
+    // Entities currently able to give each resource, indexed by resource id
+    private final List<SpatialIndex<Entity>> resourceSources = List.of(new SpatialIndex<>(), new SpatialIndex<>(), new SpatialIndex<>());
+
+    // Houses and peons, the only things monsters attack
+    private final SpatialIndex<Entity> monsterTargets = new SpatialIndex<>();
+    private static final TargetFilter ALIVE_FILTER = new TargetFilter()
+    {
+        public boolean accepts(Entity e)
+        {
+            return e.isAlive();
+        }
+    };
+
+    /**
+     * Create an island on the process-wide services (see WorldContext#shared).
+     * The caller sets up ServiceLocator and the static seeds.
+     */
     public Island(TowerComponent tower, BufferedImage image)
     {
-        this.tower = tower;
-        this.image = image;
+        this(WorldContext.shared(), tower.bitmaps, image, tower::win);
+    }
 
+    /**
+     * Create an island in its own world. The world's movement and pathfinding
+     * services are attached to the island once it is built.
+     * @param bitmaps sprites handed to entities; only used when rendering
+     * @param image island shape; pixels with alpha above 128 are ground
+     * @param onWin called when the tower is destroyed
+     */
+    public Island(WorldContext world, Bitmaps bitmaps, BufferedImage image, Runnable onWin)
+    {
+        this(world, bitmaps, image, onWin, Start.HOME);
+    }
+
+    /**
+     * Create an island in its own world, with the first guardpost and peons
+     * at the given starting point.
+     */
+    public Island(WorldContext world, Bitmaps bitmaps, BufferedImage image, Runnable onWin, Start start)
+    {
+        this(world, bitmaps, image, onWin, true, start);
+    }
+
+    /**
+     * @param populate false for an empty island, to be filled from a snapshot
+     */
+    Island(WorldContext world, Bitmaps bitmaps, BufferedImage image, Runnable onWin, boolean populate)
+    {
+        this(world, bitmaps, image, onWin, populate, Start.HOME);
+    }
+
+    private Island(WorldContext world, Bitmaps bitmaps, BufferedImage image, Runnable onWin, boolean populate, Start start)
+    {
+        this.world = world;
+        this.bitmaps = bitmaps;
+        this.onWin = onWin;
+        this.image = image;
         pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        if (!populate) return;
 
+        WorldContext previous = world.bind();
+        try
+        {
+            populate(start);
+        }
+        finally
+        {
+            WorldContext.unbind(previous);
+        }
+        // Like the game always did, nothing collides while the island is being populated
+        world.attach(this);
+    }
+
+    public WorldContext world()
+    {
+        return world;
+    }
+
+    private void populate(Start start)
+    {
         for (int i = 0; i < 1;)
         {
             double x = (random.nextDouble() * 256 - 128) * 1.5;
@@ -61,6 +162,12 @@ public class Island implements NavigationGrid
 
         double xStart = 40;
         double yStart = -120;
+        if (start == Start.BESIDE_TOWER)
+        {
+            double[] spot = findStartBesideTower();
+            xStart = spot[0];
+            yStart = spot[1];
+        }
         var house = new House(xStart, yStart, HouseType.GUARDPOST);
         house.complete();
         addEntity(house);
@@ -79,6 +186,27 @@ public class Island implements NavigationGrid
         }
     }
 
+    /**
+     * @return the nearest clearing to the tower with room for the first
+     *         guardpost and its peons, or the usual start if there is none
+     */
+    private double[] findStartBesideTower()
+    {
+        // The tower is always the first entity
+        Entity tower = entities.get(0);
+        for (int distance = 56; distance < 256; distance += 8)
+        {
+            for (int i = 0; i < 32; i++)
+            {
+                double angle = i * Math.PI * 2 / 32;
+                double x = tower.x + Math.cos(angle) * distance;
+                double y = tower.y + Math.sin(angle) * distance;
+                if (isFree(x, y, 16)) return new double[] { x, y };
+            }
+        }
+        return new double[] { 40, -120 };
+    }
+
     private void addRocks(double xo, double yo)
     {
         for (int i = 0; i < 100; i++)
@@ -111,11 +239,85 @@ public class Island implements NavigationGrid
 
     public void addEntity(Entity entity)
     {
-        entity.init(this, tower.bitmaps);
+        entity.id = nextEntityId++;
+        entity.init(this, bitmaps);
         entities.add(entity);
         entity.tick();
     }
 
+    /**
+     * Put back an entity restored from a snapshot. It is registered like a
+     * new entity, but keeps its saved id, is not counted again (the counters
+     * are restored too) and is not ticked.
+     */
+    void restoreEntity(Entity entity)
+    {
+        int savedPopulation = population;
+        int savedMonsterPopulation = monsterPopulation;
+        entity.init(this, bitmaps);
+        population = savedPopulation;
+        monsterPopulation = savedMonsterPopulation;
+        entities.add(entity);
+    }
+
+    /**
+     * Point a restored entity that had already left the island (e.g. a dead
+     * job target) back at it, without registering it anywhere.
+     */
+    void restoreDetached(Entity entity)
+    {
+        entity.island = this;
+        entity.world = world;
+        entity.bitmaps = bitmaps;
+    }
+
+    /**
+     * Save everything but the entities, see {@link Snapshot}.
+     */
+    void writeState(SnapshotWriter out)
+    {
+        random.write(out);
+        out.putDouble(rot);
+        out.putInt(resources.wood);
+        out.putInt(resources.rock);
+        out.putInt(resources.food);
+        out.putInt(population);
+        out.putInt(populationCap);
+        out.putInt(monsterPopulation);
+        out.putInt(warriorPopulation);
+        out.putInt(warriorPopulationCap);
+        out.putInt(tickCount);
+        out.putInt(nextEntityId);
+        out.putDouble(focusX);
+        out.putDouble(focusY);
+        out.putDouble(focusRadius);
+        out.putInt(lodCadence);
+    }
+
+    /**
+     * Restore the state saved by {@link #writeState}, before any entity is restored.
+     */
+    void readState(SnapshotReader in)
+    {
+        random.read(in);
+        rot = in.getDouble();
+        resources.wood = in.getInt();
+        resources.rock = in.getInt();
+        resources.food = in.getInt();
+        population = in.getInt();
+        populationCap = in.getInt();
+        monsterPopulation = in.getInt();
+        warriorPopulation = in.getInt();
+        warriorPopulationCap = in.getInt();
+        tickCount = in.getInt();
+        nextEntityId = in.getInt();
+        focusX = in.getDouble();
+        focusY = in.getDouble();
+        focusRadius = in.getDouble();
+        lodCadence = in.getInt();
+        timers = new TimerWheel(tickCount);
+    }
+
     public boolean isFree(double x, double y, double r)
     {
         return isFree(x, y, r, null);
@@ -165,7 +367,44 @@ public class Island implements NavigationGrid
         return closestEntity;
     }
 
+    public void probe(double x, double y, double r, Entity exclude, CollisionProbe out)
+    {
+        double closest = 1000000;
+        Entity closestEntity = null;
+
+        for (int i = 0; i < entities.size(); i++)
+        {
+            Entity e = entities.get(i);
+            if (e == exclude) continue;
+
+            if (e.collides(x, y, r))
+            {
+                double dist = (e.x - x) * (e.x - x) + (e.y - y) * (e.y - y);
+                if (dist < closest)
+                {
+                    closest = dist;
+                    closestEntity = e;
+                }
+            }
+        }
+
+        out.set(isOnGround(x, y), closestEntity);
+    }
+
     public void tick()
+    {
+        WorldContext previous = world.bind();
+        try
+        {
+            tickEntities();
+        }
+        finally
+        {
+            WorldContext.unbind(previous);
+        }
+    }
+
+    private void tickEntities()
     {
         if (monsterPopulation<0)
         {
@@ -173,12 +412,165 @@ public class Island implements NavigationGrid
             monsterPopulation = 0;
         }
         
+        tickCount++;
+        timers.advance(tickCount);
         for (int i = 0; i < entities.size(); i++)
         {
             Entity entity = entities.get(i);
-            entity.tick();
-            if (!entity.isAlive()) entities.remove(i--);
+            // Dormant entities keep their place in the list (and in world queries)
+            if (!entity.dormant && isDueTick(entity)) entity.planTick(moves);
+            if (!entity.isAlive())
+            {
+                entities.remove(i--);
+                unindex(entity);
+            }
         }
+        moveAgents();
+        dispatcher.dispatch();
+        // Tick boundary: deliver deferred events and reset coalescing
+        world.events().flush();
+    }
+
+    /**
+     * Resolve the moves agents queued this tick in one pass, then let each
+     * agent react to its outcome.
+     */
+    private void moveAgents()
+    {
+        world.movement().moveAll(moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            Entity entity = moves.entity(i);
+            if (entity.isAlive()) entity.finishTick(moves, i);
+        }
+        moves.clear();
+    }
+
+    /**
+     * Register an entity as a source of a resource, e.g. a tree that has
+     * grown mature. Sources are dropped automatically when they die.
+     */
+    public void addResourceSource(int resourceId, Entity source)
+    {
+        resourceSources.get(resourceId).add(source);
+    }
+
+    /**
+     * Find the closest registered source of a resource.
+     * @param filter additional acceptance test (null accepts all)
+     * @return closest source within radius, or null if none
+     */
+    public Entity findResourceSource(int resourceId, double x, double y, double radius, TargetFilter filter)
+    {
+        return resourceSources.get(resourceId).nearest(x, y, radius, filter);
+    }
+
+    /**
+     * Register a house or peon as something monsters can attack.
+     * Dropped automatically when it dies.
+     */
+    public void addMonsterTarget(Entity entity)
+    {
+        monsterTargets.add(entity);
+    }
+
+    /**
+     * @return closest living house or peon within radius, or null if none
+     */
+    public Entity findMonsterTarget(double x, double y, double radius)
+    {
+        return monsterTargets.nearest(x, y, radius, ALIVE_FILTER);
+    }
+
+    public void entityMoved(Entity entity)
+    {
+        if (!entity.isAgent()) return;
+        if (entity instanceof Peon peon)
+        {
+            dispatcher.peonMoved(peon);
+            monsterTargets.update(peon);
+        }
+        else if (entity instanceof Monster monster)
+        {
+            dispatcher.monsterMoved(monster);
+        }
+    }
+
+    private void unindex(Entity entity)
+    {
+        for (SpatialIndex<Entity> sources : resourceSources)
+        {
+            sources.remove(entity);
+        }
+        monsterTargets.remove(entity);
+        if (entity instanceof Monster monster) dispatcher.removeMonster(monster);
+    }
+
+    /**
+     * Simulate peons and monsters outside a circular focus region at reduced
+     * detail. They tick once every {@code cadence} island ticks, phased by id,
+     * and each of those ticks stands for {@code cadence} ticks: they step
+     * straight at their target without path search, move {@code cadence}
+     * times as far, and repeat arrivals and fights so yields keep pace.
+     * Agents return to full detail as soon as they are inside the region.
+     * Large cadences make long steps that can skip over small obstacles;
+     * 2 to 8 is a sensible range.
+     * @param cadence ticks per reduced-detail tick; 1 disables
+     */
+    public void setFocus(double x, double y, double radius, int cadence)
+    {
+        if (cadence < 1) throw new IllegalArgumentException("cadence must be at least 1: " + cadence);
+        focusX = x;
+        focusY = y;
+        focusRadius = radius;
+        lodCadence = cadence;
+    }
+
+    /**
+     * Simulate everything at full detail again.
+     */
+    public void clearFocus()
+    {
+        lodCadence = 1;
+    }
+
+    public boolean isInFocus(Entity entity)
+    {
+        if (lodCadence == 1) return true;
+        double xd = entity.x - focusX;
+        double yd = entity.y - focusY;
+        return xd * xd + yd * yd <= focusRadius * focusRadius;
+    }
+
+    /**
+     * Decide whether an entity ticks this island tick, and at what step.
+     */
+    private boolean isDueTick(Entity entity)
+    {
+        if (!entity.isAgent() || isInFocus(entity))
+        {
+            entity.lodStep = 1;
+            return true;
+        }
+        entity.lodStep = lodCadence;
+        return (tickCount + entity.getId()) % lodCadence == 0;
+    }
+
+    /**
+     * @return number of completed island ticks
+     */
+    public int getTickCount()
+    {
+        return tickCount;
+    }
+
+    /**
+     * Fire a timer at the start of the island tick {@code delay} ticks from now,
+     * before any entity ticks. Timers due on the same tick fire in schedule order.
+     */
+    public void schedule(Timer timer, int delay)
+    {
+        timers.schedule(timer, tickCount + delay);
     }
 
     public boolean isOnGround(double x, double y)
@@ -236,10 +628,19 @@ public class Island implements NavigationGrid
             double xp = x * cos + y * sin;
             double yp = x * sin - y * cos;
 
-            var newHouse = new House(xp, yp, type);
+            WorldContext previous = world.bind();
+            House newHouse;
+            try
+            {
+                newHouse = new House(xp, yp, type);
+            }
+            finally
+            {
+                WorldContext.unbind(previous);
+            }
             if (isFree(newHouse.x, newHouse.y, newHouse.r))
             {
-                EventBus.publish(new PlantSound());
+                world.events().dispatch(PlantSound.INSTANCE);
                 addEntity(newHouse);
                 resources.charge(type);
             }
@@ -248,6 +649,6 @@ public class Island implements NavigationGrid
 
     public void win()
     {
-        tower.win();
+        onWin.run();
     }
 }
\ No newline at end of file
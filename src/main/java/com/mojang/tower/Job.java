@@ -1,9 +1,7 @@
 package com.mojang.tower;
 
-import java.util.Random;
-
-import com.mojang.tower.event.EventBus;
 import com.mojang.tower.event.SpawnWarriorSound;
+import com.mojang.tower.timer.Timer;
 
 public sealed class Job
     permits Job.Goto, Job.GotoAndConvert, Job.Hunt, Job.Build, Job.Plant, Job.Gather
@@ -14,7 +12,7 @@ public sealed class Job
      * Package-private for test access.
      */
     static Long testSeedBase = null;
-    private static int testSeedCounter = 0;
+    static int testSeedCounter = 0;
 
     /**
      * Resets the test seed mechanism. Call before each test run.
@@ -24,13 +22,16 @@ public sealed class Job
         testSeedCounter = 0;
     }
 
-    protected Random random = createRandom();
+    protected SimRandom random = WorldContext.newJobRandom();
 
-    private static Random createRandom() {
+    /**
+     * Seeding for jobs created outside any world (see WorldContext).
+     */
+    static SimRandom createLegacyRandom() {
         if (testSeedBase != null) {
-            return new Random(testSeedBase + testSeedCounter++);
+            return new SimRandom(testSeedBase + testSeedCounter++);
         }
-        return new Random();
+        return new SimRandom();
     }
 
     public static final class Goto extends Job
@@ -52,6 +53,18 @@ public sealed class Job
         {
             peon.setJob(null);
         }
+
+        void writeState(SnapshotWriter out)
+        {
+            super.writeState(out);
+            out.putRef(target);
+        }
+
+        void readState(SnapshotReader in)
+        {
+            super.readState(in);
+            target = in.getRef();
+        }
     }
     
     public static final class GotoAndConvert extends Job
@@ -76,15 +89,28 @@ public sealed class Job
                 island.resources.wood -= House.WOOD_PER_WARRIOR;
                 peon.setType(1);
                 ((House)target).puff();
-                EventBus.publish(new SpawnWarriorSound());
+                world.events().dispatch(SpawnWarriorSound.INSTANCE);
             }
             peon.setJob(null);
         }
+
+        void writeState(SnapshotWriter out)
+        {
+            super.writeState(out);
+            out.putRef(target);
+        }
+
+        void readState(SnapshotReader in)
+        {
+            super.readState(in);
+            target = in.getRef();
+        }
     }
     
     public static final class Hunt extends Job
     {
         private Monster target;
+        private boolean counted = false;
 
         public Hunt(Monster target)
         {
@@ -92,6 +118,23 @@ public sealed class Job
             bonusRadius = 5;
         }
 
+        public void init(Island island, Peon peon)
+        {
+            super.init(island, peon);
+            target.hunters++;
+            counted = true;
+        }
+
+        void end()
+        {
+            super.end();
+            if (counted)
+            {
+                target.hunters--;
+                counted = false;
+            }
+        }
+
         public boolean isValidTarget(Entity e)
         {
             return e instanceof Monster;
@@ -101,6 +144,20 @@ public sealed class Job
         {
             target.fight(peon);
         }
+
+        void writeState(SnapshotWriter out)
+        {
+            super.writeState(out);
+            out.putRef(target);
+            out.putBoolean(counted);
+        }
+
+        void readState(SnapshotReader in)
+        {
+            super.readState(in);
+            target = (Monster) in.getRef();
+            counted = in.getBoolean();
+        }
     }    
 
 
@@ -122,6 +179,18 @@ public sealed class Job
         {
             if (target.build()) peon.setJob(null);
         }
+
+        void writeState(SnapshotWriter out)
+        {
+            super.writeState(out);
+            out.putRef(target);
+        }
+
+        void readState(SnapshotReader in)
+        {
+            super.readState(in);
+            target = (House) in.getRef();
+        }
     }
 
     public static final class Plant extends Job
@@ -174,7 +243,7 @@ public sealed class Job
             {
                 hasSeed = true;
                 bonusRadius = 15;
-                boreTime = 300;
+                setBoreTime(300);
             }
             else
             {
@@ -185,14 +254,39 @@ public sealed class Job
         {
             return hasSeed ? 3 : -1;
         }
+
+        void writeState(SnapshotWriter out)
+        {
+            super.writeState(out);
+            out.putRef(target);
+            out.putBoolean(hasSeed);
+            out.putRef(toPlant);
+        }
+
+        void readState(SnapshotReader in)
+        {
+            super.readState(in);
+            target = in.getRef();
+            hasSeed = in.getBoolean();
+            toPlant = in.getRef();
+        }
     }
 
     public static final class Gather extends Job
     {
+        static final double SOURCE_REACH = 96;
+
         boolean hasResource = false;
         public int resourceId = 0;
         private House returnTo;
-        
+
+        private final TargetFilter availableSource = new TargetFilter()
+        {
+            public boolean accepts(Entity e)
+            {
+                return e.isAlive() && !peon.isBlacklisted(e);
+            }
+        };
 
         public Gather(int id, House returnTo)
         {
@@ -218,6 +312,18 @@ public sealed class Job
             return false;
         }
 
+        public boolean hasTarget()
+        {
+            if (hasResource) return super.hasTarget();
+
+            // Go straight for the nearest source instead of probing for one
+            if (target == null || !target.isAlive())
+            {
+                target = island.findResourceSource(resourceId, peon.x, peon.y, SOURCE_REACH, availableSource);
+            }
+            return aimAtTarget();
+        }
+
         public void arrived()
         {
             if (!hasResource && target != null && target.givesResource(resourceId))
@@ -229,7 +335,7 @@ public sealed class Job
                     peon.rot += Math.PI;
 //                    tryFindTarget();
                 }
-                boreTime = 1000;
+                setBoreTime(1000);
             }
             else if (hasResource && target != null && target.acceptsResource(resourceId))
             {
@@ -242,27 +348,61 @@ public sealed class Job
                 }
             }
         }
+
+        void writeState(SnapshotWriter out)
+        {
+            super.writeState(out);
+            out.putBoolean(hasResource);
+            out.putInt(resourceId);
+            out.putRef(returnTo);
+        }
+
+        void readState(SnapshotReader in)
+        {
+            super.readState(in);
+            hasResource = in.getBoolean();
+            resourceId = in.getInt();
+            returnTo = (House) in.getRef();
+        }
     }
 
     protected Peon peon;
     protected Island island;
+    protected WorldContext world;
     public double xTarget, yTarget, targetDistance;
     protected Entity target;
     protected int bonusRadius = 2;
-    public int boreTime = 500;
+    private static final int DEFAULT_BORE_TIME = 500;
+    private final Timer boreTimer = new Timer(this::bored);
 
     public void init(Island island, Peon peon)
     {
         this.island = island;
+        this.world = island.world();
         this.peon = peon;
+        setBoreTime(DEFAULT_BORE_TIME);
+    }
+
+    /**
+     * Give up on this job if it is still running {@code ticks} ticks from now.
+     * Replaces any earlier deadline.
+     */
+    protected void setBoreTime(int ticks)
+    {
+        island.schedule(boreTimer, ticks);
+    }
+
+    /**
+     * Called by Peon when this job is replaced or cleared.
+     */
+    void end()
+    {
+        boreTimer.cancel();
     }
 
-    public final void tick()
+    private void bored()
     {
-        if (boreTime>0)
-        {
-            if (--boreTime==0) peon.setJob(null);
-        }
+        if (peon.job == this && peon.isAlive()) peon.setJob(null);
     }
 
     public boolean isValidTarget(Entity e)
@@ -295,6 +435,15 @@ public sealed class Job
                 setTarget(e);
             }
         }
+        return aimAtTarget();
+    }
+
+    /**
+     * Drop a dead target, then point xTarget/yTarget at the current one.
+     * @return true if there is a target to walk to
+     */
+    protected boolean aimAtTarget()
+    {
         if (target != null && !target.isAlive()) target = null;
         if (target == null) return false;
 
@@ -349,4 +498,72 @@ public sealed class Job
     {
         return -1;
     }
+
+    /**
+     * Save a peon's job, or its absence. See {@link Snapshot}.
+     */
+    static void write(SnapshotWriter out, Job job)
+    {
+        out.putByte(switch (job)
+        {
+            case null -> 0;
+            case Goto j -> 1;
+            case GotoAndConvert j -> 2;
+            case Hunt j -> 3;
+            case Build j -> 4;
+            case Plant j -> 5;
+            case Gather j -> 6;
+            default -> throw new IllegalStateException("Unknown job " + job.getClass());
+        });
+        if (job != null) job.writeState(out);
+    }
+
+    /**
+     * Restore a job saved by {@link #write}. The job is not started again:
+     * its timer and the counters it touched come from the snapshot.
+     */
+    static Job read(SnapshotReader in, Peon peon)
+    {
+        Job job = switch (in.getByte())
+        {
+            case 0 -> null;
+            case 1 -> new Goto(null);
+            case 2 -> new GotoAndConvert(null);
+            case 3 -> new Hunt(null);
+            case 4 -> new Build(null);
+            case 5 -> new Plant(null, 0);
+            case 6 -> new Gather(0, null);
+            default -> throw new IllegalStateException("Unknown job tag");
+        };
+        if (job != null)
+        {
+            job.island = in.island();
+            job.world = job.island.world();
+            job.peon = peon;
+            job.readState(in);
+        }
+        return job;
+    }
+
+    void writeState(SnapshotWriter out)
+    {
+        random.write(out);
+        out.putDouble(xTarget);
+        out.putDouble(yTarget);
+        out.putDouble(targetDistance);
+        out.putRef(target);
+        out.putInt(bonusRadius);
+        out.putTimer(boreTimer);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        random.read(in);
+        xTarget = in.getDouble();
+        yTarget = in.getDouble();
+        targetDistance = in.getDouble();
+        target = in.getRef();
+        bonusRadius = in.getInt();
+        in.getTimer(boreTimer, null);
+    }
 }
\ No newline at end of file
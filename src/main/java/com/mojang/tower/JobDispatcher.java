@@ -0,0 +1,173 @@
+package com.mojang.tower;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.mojang.tower.spatial.SpatialIndex;
+
+/**
+ * Matches open work posted by houses to idle peons.
+ *
+ * Peons without a job are kept in a spatial index. Houses post work items
+ * during their tick instead of probing for peons, and Island dispatches the
+ * whole batch once at the end of the tick: in posting order, each item goes
+ * to the nearest idle peon within its reach, who is then no longer idle.
+ * Items nobody could take are dropped; houses post again on later ticks.
+ *
+ * Peons that would react to nearby monsters post hunt requests the same way.
+ * Hunts are dispatched before work, and each hunter is sent to the monster
+ * in reach with the fewest hunters already on it, so warriors spread out
+ * instead of piling onto one monster.
+ */
+final class JobDispatcher
+{
+    enum Work
+    {
+        BUILD(100, false),
+        GATHER(50, true),
+        PLANT(50, true),
+        GUARD(80, true),
+        CONVERT(80, true);
+
+        final double reach;
+        final boolean workersOnly;
+
+        Work(double reach, boolean workersOnly)
+        {
+            this.reach = reach;
+            this.workersOnly = workersOnly;
+        }
+    }
+
+    private static final TargetFilter WORKERS_ONLY = new TargetFilter()
+    {
+        public boolean accepts(Entity e)
+        {
+            return ((Peon) e).type == 0;
+        }
+    };
+
+    // Original probes reached about 15 + 30 units for workers and 80 + 70 for warriors
+    private static final double WORKER_THREAT_REACH = 45;
+    private static final double WARRIOR_THREAT_REACH = 150;
+
+    private final SpatialIndex<Peon> idlePeons = new SpatialIndex<>();
+    private final SpatialIndex<Monster> monsters = new SpatialIndex<>();
+    private final List<Monster> nearbyMonsters = new ArrayList<>();
+    private Peon[] huntRequests = new Peon[16];
+    private int huntRequestCount;
+    private House[] houses = new House[16];
+    private Work[] work = new Work[16];
+    private int size;
+
+    void setIdle(Peon peon, boolean idle)
+    {
+        if (idle) idlePeons.add(peon);
+        else idlePeons.remove(peon);
+    }
+
+    void peonMoved(Peon peon)
+    {
+        idlePeons.update(peon);
+    }
+
+    void addMonster(Monster monster)
+    {
+        monsters.add(monster);
+    }
+
+    void monsterMoved(Monster monster)
+    {
+        monsters.update(monster);
+    }
+
+    void removeMonster(Monster monster)
+    {
+        monsters.remove(monster);
+    }
+
+    boolean hasIdlePeons()
+    {
+        return idlePeons.size() > 0;
+    }
+
+    void post(House house, Work item)
+    {
+        if (size == houses.length)
+        {
+            houses = Arrays.copyOf(houses, size * 2);
+            work = Arrays.copyOf(work, size * 2);
+        }
+        houses[size] = house;
+        work[size] = item;
+        size++;
+    }
+
+    /**
+     * Ask for a Hunt job against a nearby monster, if there is one.
+     */
+    void requestHunt(Peon peon)
+    {
+        if (huntRequestCount == huntRequests.length)
+        {
+            huntRequests = Arrays.copyOf(huntRequests, huntRequestCount * 2);
+        }
+        huntRequests[huntRequestCount++] = peon;
+    }
+
+    void dispatch()
+    {
+        dispatchHunts();
+
+        for (int i = 0; i < size && idlePeons.size() > 0; i++)
+        {
+            House house = houses[i];
+            if (!house.isAlive()) continue;
+
+            Work item = work[i];
+            Peon peon = idlePeons.nearest(house.x, house.y, item.reach, item.workersOnly ? WORKERS_ONLY : null);
+            if (peon != null)
+            {
+                // setJob takes the peon out of the idle index
+                peon.setJob(house.createJob(item));
+            }
+        }
+        Arrays.fill(houses, 0, size, null);
+        size = 0;
+    }
+
+    private void dispatchHunts()
+    {
+        for (int i = 0; i < huntRequestCount; i++)
+        {
+            Peon peon = huntRequests[i];
+            if (!peon.isAlive() || !peon.wantsHunt()) continue;
+
+            nearbyMonsters.clear();
+            monsters.collect(peon.x, peon.y, peon.type == 0 ? WORKER_THREAT_REACH : WARRIOR_THREAT_REACH, nearbyMonsters);
+
+            // Fewest hunters first, then closest, then lowest id
+            Monster best = null;
+            double bestDist = 0;
+            for (int j = 0; j < nearbyMonsters.size(); j++)
+            {
+                Monster monster = nearbyMonsters.get(j);
+                if (!monster.isAlive()) continue;
+                double dist = monster.distance(peon);
+                if (best == null || monster.hunters < best.hunters
+                    || (monster.hunters == best.hunters && (dist < bestDist || (dist == bestDist && monster.getId() < best.getId()))))
+                {
+                    best = monster;
+                    bestDist = dist;
+                }
+            }
+            if (best != null)
+            {
+                peon.setJob(new Job.Hunt(best));
+            }
+        }
+        Arrays.fill(huntRequests, 0, huntRequestCount, null);
+        huntRequestCount = 0;
+    }
+}
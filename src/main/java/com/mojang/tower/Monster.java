@@ -3,21 +3,28 @@ package com.mojang.tower;
 import java.awt.Color;
 import java.awt.Graphics2D;
 
-import com.mojang.tower.event.EventBus;
 import com.mojang.tower.event.MonsterDeathSound;
+import com.mojang.tower.movement.MovementBatch;
 import com.mojang.tower.movement.MovementRequest;
 import com.mojang.tower.movement.MovementResult;
-import com.mojang.tower.service.ServiceLocator;
 
 public final class Monster extends Entity
 {
     private static final int[] animSteps = { 0, 1, 0, 2 };
     private static final int[] animDirs = { 2, 0, 3, 1 };
+    private static final double TARGET_REACH = 90;
+    private static final int RETARGET_INTERVAL = 100;
+    private static final int SEARCH_BACKOFF = 8;
     public double rot = 0;
     public double moveTick = 0;
-    private int wanderTime = 0;
+    private int wanderUntil = 0; // tickCounter value at which wandering ends
+    private int tickCounter = 0;
+    private int nextSearch = 0; // tickCounter value before which a target-less monster won't search again
+    private int nextRetarget; // tickCounter value of the next scheduled retarget; 0 until init
+    private double speed; // of the step planned this tick
 
     protected Entity target;
+    int hunters = 0; // peons currently on a Hunt job against this monster
     private int hp = 100;
     private int maxHp = 100;
 
@@ -28,44 +35,64 @@ public final class Monster extends Entity
         moveTick = random.nextInt(4 * 3);
     }
 
+    public boolean isAgent()
+    {
+        return true;
+    }
+
     public void init(Island island, Bitmaps bitmaps)
     {
         super.init(island, bitmaps);
         island.monsterPopulation++;
+        island.dispatcher.addMonster(this);
+        // Phase the retarget schedule by id so monsters don't all search on the same tick;
+        // a monster restored from a snapshot already has its schedule
+        if (nextRetarget == 0) nextRetarget = RETARGET_INTERVAL - getId() % RETARGET_INTERVAL;
     }
 
     public void die()
     {
-        EventBus.publish(new MonsterDeathSound());
+        world.events().dispatch(MonsterDeathSound.INSTANCE);
         island.monsterPopulation--;
         alive = false;
     }
 
     public void tick()
     {
-        if (hp < maxHp && random.nextInt(16) == 0)
+        tickAlone();
+    }
+
+    void planTick(MovementBatch moves)
+    {
+        tickCounter += lodStep;
+
+        for (int i = 0; i < lodStep; i++)
         {
-            hp++;
+            if (hp < maxHp && random.nextInt(16) == 0)
+            {
+                hp++;
+            }
         }
 
-        if (target == null || random.nextInt(100) == 0)
+        boolean retarget = tickCounter >= nextRetarget;
+        // A reduced-detail tick can cover several intervals; keep the id phase
+        while (nextRetarget <= tickCounter) nextRetarget += RETARGET_INTERVAL;
+        if ((target == null && tickCounter >= nextSearch) || retarget)
         {
-            Entity e = getRandomTarget(60, 30, new TargetFilter()
-            {
-                public boolean accepts(Entity e)
-                {
-                    return e.isAlive() && (e instanceof House || e instanceof Peon);
-                }
-            });
-            if (e instanceof House || e instanceof Peon)
+            Entity e = island.findMonsterTarget(x, y, TARGET_REACH);
+            if (e != null)
             {
                 target = e;
             }
+            else if (target == null)
+            {
+                nextSearch = tickCounter + SEARCH_BACKOFF;
+            }
         }
         if (target != null && !target.isAlive()) target = null;
 
-        double speed = 1;
-        if (wanderTime == 0 && target != null)
+        speed = 1;
+        if (tickCounter >= wanderUntil && target != null)
         {
             double xd = target.x - x;
             double yd = target.y - y;
@@ -73,7 +100,12 @@ public final class Monster extends Entity
             if (xd * xd + yd * yd < rd * rd)
             {
                 speed = 0;
-                target.fight(this);
+                // At reduced detail one tick stands for lodStep rounds of fighting
+                Entity opponent = target;
+                for (int i = 0; i < lodStep && alive && opponent.isAlive(); i++)
+                {
+                    opponent.fight(this);
+                }
             }
             rot = Math.atan2(yd, xd);
         }
@@ -82,16 +114,25 @@ public final class Monster extends Entity
             rot += (random.nextDouble() - 0.5) * random.nextDouble();
         }
 
-        if (wanderTime > 0) wanderTime--;
+        double targetX = x + Math.cos(rot) * 0.3 * speed * lodStep;
+        double targetY = y + Math.sin(rot) * 0.3 * speed * lodStep;
+        moves.add(this, targetX, targetY);
+    }
 
-        double targetX = x + Math.cos(rot) * 0.3 * speed;
-        double targetY = y + Math.sin(rot) * 0.3 * speed;
-        MovementResult result = ServiceLocator.movement().move(
-            new MovementRequest(this, targetX, targetY)
-        );
-        if (result instanceof MovementResult.Blocked) {
+    void finishTick(MovementBatch moves, int slot)
+    {
+        boolean blocked = moves.status(slot) == MovementBatch.BLOCKED;
+        if (lodStep > 1 && blocked)
+        {
+            // A long reduced-detail step can end inside an obstacle; settle for a single step
+            blocked = world.movement().move(
+                new MovementRequest(this, x + Math.cos(rot) * 0.3 * speed, y + Math.sin(rot) * 0.3 * speed)
+            ) instanceof MovementResult.Blocked;
+        }
+        if (blocked) {
             rot += random.nextInt(2) * 2 - 1 * Math.PI / 2 + (random.nextDouble() - 0.5);
-            wanderTime = random.nextInt(30);
+            int wanderTime = random.nextInt(30);
+            wanderUntil = tickCounter + wanderTime + 1;
         }
 
         moveTick += speed;
@@ -100,6 +141,36 @@ public final class Monster extends Entity
         super.tick();
     }
 
+    void writeState(SnapshotWriter out)
+    {
+        super.writeState(out);
+        out.putDouble(rot);
+        out.putDouble(moveTick);
+        out.putInt(wanderUntil);
+        out.putInt(tickCounter);
+        out.putInt(nextSearch);
+        out.putInt(nextRetarget);
+        out.putRef(target);
+        out.putInt(hunters);
+        out.putInt(hp);
+        out.putInt(maxHp);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        rot = in.getDouble();
+        moveTick = in.getDouble();
+        wanderUntil = in.getInt();
+        tickCounter = in.getInt();
+        nextSearch = in.getInt();
+        nextRetarget = in.getInt();
+        target = in.getRef();
+        hunters = in.getInt();
+        hp = in.getInt();
+        maxHp = in.getInt();
+    }
+
     public void render(Graphics2D g, double alpha)
     {
         int rotStep = (int) Math.floor((rot - island.rot) * 4 / (Math.PI * 2) + 0.5);
@@ -2,20 +2,19 @@ package com.mojang.tower;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.mojang.tower.event.AbandonedTargetSound;
-import com.mojang.tower.event.EventBus;
 import com.mojang.tower.event.DeathSound;
 import com.mojang.tower.event.DingSound;
 import com.mojang.tower.event.InfoPuffEffect;
+import com.mojang.tower.movement.MovementBatch;
 import com.mojang.tower.movement.MovementRequest;
 import com.mojang.tower.movement.MovementResult;
 import com.mojang.tower.pathfinding.GridCell;
 import com.mojang.tower.pathfinding.PathResult;
 import com.mojang.tower.pathfinding.PathfindingService;
-import com.mojang.tower.service.ServiceLocator;
 
 public final class Peon extends Entity
 {
@@ -24,7 +23,7 @@ public final class Peon extends Entity
     public double rot = 0;
     public double moveTick = 0;
     public int type;
-    private int wanderTime = 0;
+    private int wanderUntil = 0; // tickCounter value at which wandering ends
     private List<GridCell> currentPath;
     private int pathIndex;
     private double pathTargetX, pathTargetY;  // Track what target the path was computed for
@@ -39,9 +38,10 @@ public final class Peon extends Entity
     private int level = 0;
 
     // Blacklist for failed targets (prevents re-assignment thrashing)
-    private final LinkedHashMap<Entity, Integer> targetBlacklist = new LinkedHashMap<>();
     private static final int BLACKLIST_DURATION = 60; // ticks
+    private final TargetBlacklist targetBlacklist = new TargetBlacklist(BLACKLIST_DURATION);
     private int tickCounter = 0;
+    private double speed; // of the step planned this tick
 
     public Peon(double x, double y, int type)
     {
@@ -51,10 +51,17 @@ public final class Peon extends Entity
         moveTick = random.nextInt(4 * 3);
     }
 
+    public boolean isAgent()
+    {
+        return true;
+    }
+
     public void init(Island island, Bitmaps bitmaps)
     {
         super.init(island, bitmaps);
         island.population++;
+        island.dispatcher.setIdle(this, alive && job == null);
+        island.addMonsterTarget(this);
     }
 
     public void fight(Monster monster)
@@ -77,8 +84,10 @@ public final class Peon extends Entity
 
     public void die()
     {
-        EventBus.publish(new DeathSound());
+        world.events().dispatch(DeathSound.INSTANCE);
         island.population--;
+        island.dispatcher.setIdle(this, false);
+        if (job != null) job.end();
         if (type == 1)
         {
             island.warriorPopulation--;
@@ -86,11 +95,22 @@ public final class Peon extends Entity
         alive = false;
     }
 
+    /**
+     * Warriors react to nearby monsters unless already hunting or working;
+     * workers only when idle. Guard duty is interrupted by a hunt.
+     */
+    boolean wantsHunt()
+    {
+        return (type == 1 || job == null) && (job == null || job instanceof Job.Goto);
+    }
+
     public void setJob(Job job)
     {
+        if (this.job != null) this.job.end();
         this.job = job;
         this.currentPath = null; // Clear path when job changes
         if (job != null) job.init(island, this);
+        if (island != null && alive) island.dispatcher.setIdle(this, job == null);
     }
 
     /**
@@ -98,7 +118,7 @@ public final class Peon extends Entity
      * Called at start of tick() for deterministic cleanup.
      */
     private void cleanBlacklist() {
-        targetBlacklist.entrySet().removeIf(e -> e.getValue() <= tickCounter);
+        targetBlacklist.expire(tickCounter);
     }
 
     /**
@@ -107,7 +127,7 @@ public final class Peon extends Entity
      */
     private void blacklistTarget(Entity target) {
         if (target != null) {
-            targetBlacklist.put(target, tickCounter + BLACKLIST_DURATION);
+            targetBlacklist.add(target, tickCounter);
         }
     }
 
@@ -117,7 +137,7 @@ public final class Peon extends Entity
      * @return true if target is currently blacklisted
      */
     public boolean isBlacklisted(Entity target) {
-        return target != null && targetBlacklist.containsKey(target);
+        return target != null && targetBlacklist.contains(target);
     }
 
     /**
@@ -154,34 +174,27 @@ public final class Peon extends Entity
 
     public void tick()
     {
-        tickCounter++;
+        tickAlone();
+    }
+
+    void planTick(MovementBatch moves)
+    {
+        tickCounter += lodStep;
         cleanBlacklist();
 
-        if (job != null)
+        if (wantsHunt())
         {
-            job.tick();
+            // Answered in a batch at the end of the island tick
+            island.dispatcher.requestHunt(this);
         }
 
-        if (type == 1 || job == null) for (int i = 0; i < 15 && (job==null || job instanceof Job.Goto); i++)
+        for (int i = 0; i < lodStep; i++)
         {
-            TargetFilter monsterFilter = new TargetFilter()
+            if (hp < maxHp && random.nextInt(5) == 0)
             {
-                public boolean accepts(Entity e)
-                {
-                    return e.isAlive() && (e instanceof Monster);
-                }                  
-            };
-            Entity e = type == 0 ? getRandomTarget(30, 15, monsterFilter) : getRandomTarget(70, 80, monsterFilter);
-            if (e instanceof Monster monster)
-            {
-                setJob(new Job.Hunt(monster));
+                hp++;
             }
         }
-
-        if (hp < maxHp && random.nextInt(5) == 0)
-        {
-            hp++;
-        }
         /*        if (target == null || !target.isAlive() || random.nextInt(200) == 0)
                 {
                     target = getRandomTarget();
@@ -191,8 +204,8 @@ public final class Peon extends Entity
                     }
                 }*/
 
-        double speed = 1;
-        if (wanderTime == 0 && job != null && job.hasTarget())
+        speed = 1;
+        if (tickCounter >= wanderUntil && job != null && job.hasTarget())
         {
             // Invalidate path if job target has moved significantly (>= 1 grid cell = 4 world units)
             if (currentPath != null) {
@@ -209,15 +222,28 @@ public final class Peon extends Entity
             double rd = job.targetDistance + r;
             if (xd * xd + yd * yd < rd * rd)
             {
-                job.arrived();
+                // At reduced detail one tick stands for lodStep arrivals
+                Job arrivedJob = job;
+                Entity arrivedAt = job.getTarget();
+                arrivedJob.arrived();
+                for (int i = 1; i < lodStep && alive && job == arrivedJob && job.getTarget() == arrivedAt; i++)
+                {
+                    arrivedJob.arrived();
+                }
                 currentPath = null;
                 speed = 0;
             }
+            else if (lodStep > 1)
+            {
+                // Reduced detail: head straight for the target, no path search
+                currentPath = null;
+                rot = Math.atan2(yd, xd);
+            }
             else
             {
                 // Need path to target
                 if (currentPath == null) {
-                    PathResult result = ServiceLocator.pathfinding().findPath(x, y, job.xTarget, job.yTarget);
+                    PathResult result = world.pathfinding().findPath(x, y, job.xTarget, job.yTarget);
                     switch (result) {
                         case PathResult.Found(var path) -> {
                             currentPath = path;
@@ -240,7 +266,7 @@ public final class Peon extends Entity
                                 if (target != null) {
                                     blacklistTarget(target);
                                 }
-                                EventBus.publish(new AbandonedTargetSound());
+                                world.events().dispatch(AbandonedTargetSound.INSTANCE);
                                 setJob(null); // Become idle, available for new assignment
                             }
                         }
@@ -272,37 +298,44 @@ public final class Peon extends Entity
         }
         else
         {
-            // Original else branch: wanderTime > 0 OR no job OR job has no target
+            // Original else branch: wandering OR no job OR job has no target
             rot += (random.nextDouble() - 0.5) * random.nextDouble() * 2;
         }
 
-        if (wanderTime > 0) wanderTime--;
-
         speed += level * 0.1;
 
-        double targetX = x + Math.cos(rot) * 0.4 * speed;
-        double targetY = y + Math.sin(rot) * 0.4 * speed;
-        MovementResult result = ServiceLocator.movement().move(
-            new MovementRequest(this, targetX, targetY)
-        );
-        switch (result) {
-            case MovementResult.Moved(var newX, var newY) -> {
-                // Position already updated by MovementSystem
-            }
-            case MovementResult.Blocked(var blocker) -> {
-                // Path is now invalid - clear and try again next tick
-                currentPath = null;
-                if (job != null) {
-                    if (blocker != null) {
-                        job.collide(blocker);
-                    } else {
-                        job.cantReach();
-                    }
+        double targetX = x + Math.cos(rot) * 0.4 * speed * lodStep;
+        double targetY = y + Math.sin(rot) * 0.4 * speed * lodStep;
+        moves.add(this, targetX, targetY);
+    }
+
+    void finishTick(MovementBatch moves, int slot)
+    {
+        boolean blocked = moves.status(slot) == MovementBatch.BLOCKED;
+        Entity blocker = moves.blocker(slot);
+        if (lodStep > 1 && blocked)
+        {
+            // A long reduced-detail step can end inside an obstacle; settle for a single step
+            MovementResult retry = world.movement().move(
+                new MovementRequest(this, x + Math.cos(rot) * 0.4 * speed, y + Math.sin(rot) * 0.4 * speed)
+            );
+            if (retry instanceof MovementResult.Blocked(var b)) blocker = b;
+            else blocked = false;
+        }
+        if (blocked) {
+            // Path is now invalid - clear and try again next tick
+            currentPath = null;
+            if (job != null) {
+                if (blocker != null) {
+                    job.collide(blocker);
+                } else {
+                    job.cantReach();
                 }
-                // Original behavior preserved exactly
-                rot = random.nextDouble() * Math.PI * 2;
-                wanderTime = random.nextInt(30) + 3;
             }
+            // Original behavior preserved exactly
+            rot = random.nextDouble() * Math.PI * 2;
+            int wanderTime = random.nextInt(30) + 3;
+            wanderUntil = tickCounter + wanderTime + 1;
         }
 
         moveTick += speed;
@@ -311,6 +344,70 @@ public final class Peon extends Entity
         super.tick();
     }
 
+    void writeState(SnapshotWriter out)
+    {
+        super.writeState(out);
+        out.putDouble(rot);
+        out.putDouble(moveTick);
+        out.putInt(type);
+        out.putInt(wanderUntil);
+        out.putInt(currentPath == null ? -1 : currentPath.size());
+        if (currentPath != null)
+        {
+            for (GridCell cell : currentPath)
+            {
+                out.putShort(cell.x());
+                out.putShort(cell.y());
+            }
+        }
+        out.putInt(pathIndex);
+        out.putDouble(pathTargetX);
+        out.putDouble(pathTargetY);
+        out.putDouble(xTarget);
+        out.putDouble(yTarget);
+        out.putInt(hp);
+        out.putInt(maxHp);
+        out.putInt(xp);
+        out.putInt(nextLevel);
+        out.putInt(level);
+        targetBlacklist.write(out);
+        out.putInt(tickCounter);
+        Job.write(out, job);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        rot = in.getDouble();
+        moveTick = in.getDouble();
+        type = in.getInt();
+        wanderUntil = in.getInt();
+        int pathLength = in.getInt();
+        currentPath = null;
+        if (pathLength >= 0)
+        {
+            currentPath = new ArrayList<>(pathLength);
+            for (int i = 0; i < pathLength; i++)
+            {
+                currentPath.add(new GridCell(in.getShort(), in.getShort()));
+            }
+        }
+        pathIndex = in.getInt();
+        pathTargetX = in.getDouble();
+        pathTargetY = in.getDouble();
+        xTarget = in.getDouble();
+        yTarget = in.getDouble();
+        hp = in.getInt();
+        maxHp = in.getInt();
+        xp = in.getInt();
+        nextLevel = in.getInt();
+        level = in.getInt();
+        targetBlacklist.read(in);
+        tickCounter = in.getInt();
+        // Set directly: the job is already running, so it must not be started again
+        job = Job.read(in, this);
+    }
+
     public void render(Graphics2D g, double alpha)
     {
         int rotStep = (int) Math.floor((rot - island.rot) * 4 / (Math.PI * 2) + 0.5);
@@ -358,11 +455,11 @@ public final class Peon extends Entity
         if (xp==nextLevel)
         {
             nextLevel = nextLevel*2+1;
-            EventBus.publish(new InfoPuffEffect(x, y, 0));
+            if (world.events().hasListeners(InfoPuffEffect.class)) world.events().dispatch(new InfoPuffEffect(x, y, 0));
             hp+=10;
             maxHp+=10;
             level++;
-            EventBus.publish(new DingSound());
+            world.events().dispatch(DingSound.INSTANCE);
         }
     }
 }
\ No newline at end of file
@@ -37,6 +37,28 @@ public final class Puff extends Entity
         if (life++ == lifeTime) alive = false;
     }
 
+    void writeState(SnapshotWriter out)
+    {
+        super.writeState(out);
+        out.putDouble(xa);
+        out.putDouble(ya);
+        out.putDouble(za);
+        out.putDouble(z);
+        out.putInt(life);
+        out.putInt(lifeTime);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        xa = in.getDouble();
+        ya = in.getDouble();
+        za = in.getDouble();
+        z = in.getDouble();
+        life = in.getInt();
+        lifeTime = in.getInt();
+    }
+
     public void render(Graphics2D g, double alpha)
     {
         int x = (int) (xr - 4);
@@ -0,0 +1,159 @@
+package com.mojang.tower;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.mojang.tower.event.EffectEvent;
+import com.mojang.tower.event.InfoPuffEffect;
+import com.mojang.tower.event.PuffEffect;
+
+/**
+ * Plays a logged session (see CommandLog) again without a window or sound,
+ * as fast as the machine allows. The island is rebuilt from the session's
+ * seed or snapshot and each command is applied before the same island tick
+ * as in the game, so the replay ends in exactly the state the game did.
+ *
+ * The event bus is set up like the game's (TowerComponent.init): effects
+ * add entities, and events are delivered at the end of each tick. Both
+ * affect the simulation, so they must stay in step.
+ *
+ * <pre>
+ * java -cp target/classes com.mojang.tower.Replay tower.commands
+ * </pre>
+ */
+public final class Replay
+{
+    private final CommandLog.Session session;
+    private WorldContext world;
+    private Island island;
+    private int wonTick = -1;
+
+    public Replay(CommandLog.Session session)
+    {
+        this.session = session;
+    }
+
+    /**
+     * Replay the session up to {@code maxTicks} island ticks, or to its end
+     * if that comes first.
+     * @param maxTicks tick to stop at; ignored if the session did not record its end
+     * @return the island in its final state
+     */
+    public Island run(int maxTicks) throws IOException
+    {
+        setUp();
+        int endTick = session.endTick() < 0 ? maxTicks : Math.min(maxTicks, session.endTick());
+        List<CommandLog.Entry> commands = session.commands();
+        int next = 0;
+        while (true)
+        {
+            while (next < commands.size() && commands.get(next).tick() <= island.getTickCount())
+            {
+                commands.get(next++).command().apply(island);
+            }
+            if (island.getTickCount() >= endTick) break;
+            island.tick();
+        }
+        return island;
+    }
+
+    public Island getIsland()
+    {
+        return island;
+    }
+
+    public WorldContext getWorld()
+    {
+        return world;
+    }
+
+    /**
+     * @return island tick at which the tower fell, or -1
+     */
+    public int getWonTick()
+    {
+        return wonTick;
+    }
+
+    private void setUp() throws IOException
+    {
+        world = new WorldContext(session.seed());
+        world.events().register(EffectEvent.class, event -> {
+            switch (event)
+            {
+                case PuffEffect(var x, var y) -> island.addEntity(new Puff(x, y));
+                case InfoPuffEffect(var x, var y, var img) -> island.addEntity(new InfoPuff(x, y, img));
+            }
+        });
+        world.events().setDeferred(true);
+
+        Runnable onWin = () -> {
+            if (wonTick < 0) wonTick = island.getTickCount();
+        };
+        if (session.snapshot() == null)
+        {
+            island = new Island(world, new Bitmaps(), Bitmaps.loadIsland(), onWin);
+        }
+        else
+        {
+            island = Snapshot.read(session.snapshot(), world, new Bitmaps(), Bitmaps.loadIsland(), onWin).island();
+        }
+    }
+
+    private static void usage()
+    {
+        System.err.println("Usage: Replay FILE [--ticks N]");
+        System.err.println("  FILE          command log written by the game");
+        System.err.println("  --ticks N     stop after N island ticks; needed for logs that were not closed");
+        System.exit(2);
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        Path file = null;
+        int ticks = Integer.MAX_VALUE;
+        try
+        {
+            for (int i = 0; i < args.length; i++)
+            {
+                switch (args[i])
+                {
+                    case "--ticks" -> ticks = Integer.parseInt(args[++i]);
+                    default ->
+                    {
+                        if (file != null || args[i].startsWith("--")) usage();
+                        file = Path.of(args[i]);
+                    }
+                }
+            }
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e)
+        {
+            usage();
+        }
+        if (file == null || ticks < 0) usage();
+
+        CommandLog.Session session = CommandLog.read(file);
+        if (session.endTick() < 0 && ticks == Integer.MAX_VALUE)
+        {
+            System.err.println("The log has no end; give --ticks N");
+            System.exit(2);
+        }
+
+        Replay replay = new Replay(session);
+        long start = System.nanoTime();
+        Island island = replay.run(ticks);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%d commands, %d ticks in %.2f s (%.0f ticks/s)%n",
+            session.commands().size(), island.getTickCount(), elapsed / 1e9, island.getTickCount() * 1e9 / Math.max(elapsed, 1));
+        System.out.println(replay.getWonTick() >= 0 ? "tower destroyed at tick " + replay.getWonTick() : "tower still standing");
+        System.out.printf("pop %d/%d, warriors %d/%d, monsters %d, wood %d, rock %d, food %d, entities %d%n",
+            island.population, island.populationCap, island.warriorPopulation, island.warriorPopulationCap,
+            island.monsterPopulation, island.resources.wood, island.resources.rock, island.resources.food,
+            island.entities.size());
+    }
+}
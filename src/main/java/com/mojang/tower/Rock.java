@@ -14,8 +14,32 @@ public final class Rock extends Entity
         type = random.nextInt(4);
     }
 
+    public void init(Island island, Bitmaps bitmaps)
+    {
+        super.init(island, bitmaps);
+        island.addResourceSource(Resources.ROCK, this);
+    }
+
     public void tick()
     {
+        // Rocks never change on their own; gathering happens in the peon's tick
+        sleepForever();
+    }
+
+    void writeState(SnapshotWriter out)
+    {
+        super.writeState(out);
+        out.putInt(type);
+        out.putInt(stamina);
+        out.putInt(life);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        type = in.getInt();
+        stamina = in.getInt();
+        life = in.getInt();
     }
 
     public void render(Graphics2D g, double alpha)
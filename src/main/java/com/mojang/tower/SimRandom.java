@@ -0,0 +1,84 @@
+package com.mojang.tower;
+
+import java.util.Random;
+
+/**
+ * The simulation's random generator: the same sequence as java.util.Random
+ * for the same seed, but with state that can be read back and restored, so
+ * snapshots can continue a game exactly where it left off.
+ *
+ * Not thread-safe; every world is ticked by one thread at a time.
+ */
+public final class SimRandom extends Random
+{
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // No initializers: Random's constructor calls setSeed before they would run
+    private long state;
+    private double nextNextGaussian;
+    private boolean haveNextNextGaussian;
+
+    public SimRandom()
+    {
+        super();
+    }
+
+    public SimRandom(long seed)
+    {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed)
+    {
+        state = (seed ^ MULTIPLIER) & MASK;
+        haveNextNextGaussian = false;
+    }
+
+    @Override
+    protected int next(int bits)
+    {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    @Override
+    public double nextGaussian()
+    {
+        // Polar method, as in java.util.Random
+        if (haveNextNextGaussian)
+        {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
+        }
+        double v1, v2, s;
+        do
+        {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        }
+        while (s >= 1 || s == 0);
+        double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextNextGaussian = v2 * multiplier;
+        haveNextNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+    void write(SnapshotWriter out)
+    {
+        out.putLong(state);
+        out.putBoolean(haveNextNextGaussian);
+        if (haveNextNextGaussian) out.putDouble(nextNextGaussian);
+    }
+
+    void read(SnapshotReader in)
+    {
+        state = in.getLong();
+        haveNextNextGaussian = in.getBoolean();
+        nextNextGaussian = haveNextNextGaussian ? in.getDouble() : 0;
+    }
+}
@@ -0,0 +1,231 @@
+package com.mojang.tower;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.mojang.tower.state.GameState;
+import com.mojang.tower.state.PlayingState;
+import com.mojang.tower.state.TitleState;
+import com.mojang.tower.state.WonState;
+
+/**
+ * Compact binary save of a whole simulation: every entity with its job,
+ * timers and random generator state, the island's counters, resources,
+ * rotation and seeding, and optionally the game screen state. Restoring a
+ * snapshot and ticking on plays out exactly like the original would have.
+ *
+ * Layout (little-endian): magic, version, offset of the entity table, game
+ * state, island state, entity states, seeding, entity table. The table
+ * lists each entity record's type, so the reader can create every entity
+ * before reading any state and resolve references between them directly.
+ * The first records are the island's entities in list order; after them
+ * come entities that are only referenced, such as a target that has died.
+ *
+ * Snapshots are read back by the same version of the game only.
+ */
+public final class Snapshot
+{
+    public static final int MAGIC = 0x53525754; // "TWRS"
+    public static final int VERSION = 2;
+
+    /**
+     * Game screen state saved alongside the island.
+     */
+    public record Game(GameState state, int gameTime, int winScore)
+    {
+    }
+
+    public record Restored(Island island, Game game)
+    {
+    }
+
+    private Snapshot()
+    {
+    }
+
+    /**
+     * Save an island, e.g. between ticks.
+     * @param game screen state, or null for a bare simulation
+     * @return the snapshot, positioned at its start
+     */
+    public static ByteBuffer write(Island island, Game game)
+    {
+        SnapshotWriter out = new SnapshotWriter(256 + island.entities.size() * 128);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        int tableOffset = out.position();
+        out.putInt(0);
+
+        writeGame(out, game);
+        island.writeState(out);
+        out.putInt(island.entities.size());
+        for (int i = 0; i < island.entities.size(); i++)
+        {
+            out.record(island.entities.get(i));
+        }
+        // Writing a record can add records for the entities it references
+        for (int i = 0; i < out.recordCount(); i++)
+        {
+            out.recordAt(i).writeState(out);
+        }
+        island.world().writeSeeds(out);
+
+        out.putInt(tableOffset, out.position());
+        out.putInt(out.recordCount());
+        for (int i = 0; i < out.recordCount(); i++)
+        {
+            Entity entity = out.recordAt(i);
+            out.putByte(tagOf(entity));
+            out.putBoolean(entity.island != null);
+        }
+        return out.finish();
+    }
+
+    /**
+     * Rebuild an island from a snapshot in the given world. The world's
+     * seeding is restored too, and its services are attached to the island.
+     * @throws IllegalArgumentException if this is not a snapshot of this version
+     */
+    public static Restored read(ByteBuffer snapshot, WorldContext world, Bitmaps bitmaps, BufferedImage image, Runnable onWin)
+    {
+        Island island = new Island(world, bitmaps, image, onWin, false);
+        SnapshotReader in = new SnapshotReader(snapshot, island);
+        if (snapshot.remaining() < 10 || in.getInt() != MAGIC) throw new IllegalArgumentException("Not a snapshot");
+        int version = in.getShort();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        int tableOffset = in.getInt();
+
+        Game game = readGame(in);
+        // Entity constructors draw seeds, so bind the world and restore its seeding after them
+        WorldContext previous = world.bind();
+        try
+        {
+            island.readState(in);
+            int listed = in.getInt();
+            int statesOffset = in.position();
+
+            in.position(tableOffset);
+            Entity[] records = new Entity[in.getInt()];
+            boolean[] attached = new boolean[records.length];
+            for (int i = 0; i < records.length; i++)
+            {
+                records[i] = create(in.getByte());
+                attached[i] = in.getBoolean();
+            }
+            in.setRecords(records);
+
+            in.position(statesOffset);
+            for (Entity entity : records)
+            {
+                entity.readState(in);
+            }
+            world.readSeeds(in);
+
+            for (int i = 0; i < records.length; i++)
+            {
+                if (i < listed) island.restoreEntity(records[i]);
+                else if (attached[i]) island.restoreDetached(records[i]);
+            }
+            in.scheduleTimers();
+        }
+        finally
+        {
+            WorldContext.unbind(previous);
+        }
+        world.attach(island);
+        return new Restored(island, game);
+    }
+
+    public static void save(Path file, ByteBuffer snapshot) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer bytes = snapshot.duplicate();
+            while (bytes.hasRemaining())
+            {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    public static ByteBuffer load(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (bytes.hasRemaining() && channel.read(bytes) >= 0)
+            {
+            }
+            return bytes.flip();
+        }
+    }
+
+    private static void writeGame(SnapshotWriter out, Game game)
+    {
+        out.putBoolean(game != null);
+        if (game == null) return;
+        switch (game.state())
+        {
+            case TitleState s -> out.putByte(0);
+            case PlayingState s -> out.putByte(1);
+            case WonState s ->
+            {
+                out.putByte(2);
+                out.putInt(s.getWonTime());
+            }
+        }
+        out.putInt(game.gameTime());
+        out.putInt(game.winScore());
+    }
+
+    private static Game readGame(SnapshotReader in)
+    {
+        if (!in.getBoolean()) return null;
+        GameState state = switch (in.getByte())
+        {
+            case 0 -> new TitleState();
+            case 1 -> new PlayingState();
+            case 2 -> new WonState(in.getInt());
+            default -> throw new IllegalArgumentException("Unknown game state");
+        };
+        return new Game(state, in.getInt(), in.getInt());
+    }
+
+    private static int tagOf(Entity entity)
+    {
+        return switch (entity)
+        {
+            case Tower e -> 0;
+            case Rock e -> 1;
+            case Tree e -> 2;
+            case FarmPlot e -> 3;
+            case House e -> 4;
+            case Peon e -> 5;
+            case Monster e -> 6;
+            case Puff e -> 7;
+            case InfoPuff e -> 8;
+            default -> throw new IllegalStateException("Unknown entity " + entity.getClass());
+        };
+    }
+
+    private static Entity create(int tag)
+    {
+        return switch (tag)
+        {
+            case 0 -> new Tower(0, 0);
+            case 1 -> new Rock(0, 0);
+            case 2 -> new Tree(0, 0, 0);
+            case 3 -> new FarmPlot(0, 0, 0);
+            case 4 -> new House(0, 0, HouseType.MASON);
+            case 5 -> new Peon(0, 0, 0);
+            case 6 -> new Monster(0, 0);
+            case 7 -> new Puff(0, 0);
+            case 8 -> new InfoPuff(0, 0, 0);
+            default -> throw new IllegalArgumentException("Unknown entity tag " + tag);
+        };
+    }
+}
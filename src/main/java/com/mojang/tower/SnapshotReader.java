@@ -0,0 +1,118 @@
+package com.mojang.tower;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.mojang.tower.timer.Timer;
+
+/**
+ * Reads snapshot fields written by {@link SnapshotWriter}.
+ *
+ * All entity records are created before any state is read, so references
+ * resolve immediately. Timers are collected while reading and scheduled
+ * together at the end, in their original firing order.
+ */
+final class SnapshotReader
+{
+    private record PendingTimer(Timer timer, int deadline, long sequence)
+    {
+    }
+
+    private final ByteBuffer buffer;
+    private final Island island;
+    private Entity[] records = new Entity[0];
+    private final List<PendingTimer> timers = new ArrayList<>();
+
+    SnapshotReader(ByteBuffer buffer, Island island)
+    {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.island = island;
+    }
+
+    Island island()
+    {
+        return island;
+    }
+
+    byte getByte()
+    {
+        return buffer.get();
+    }
+
+    boolean getBoolean()
+    {
+        return buffer.get() != 0;
+    }
+
+    short getShort()
+    {
+        return buffer.getShort();
+    }
+
+    int getInt()
+    {
+        return buffer.getInt();
+    }
+
+    long getLong()
+    {
+        return buffer.getLong();
+    }
+
+    double getDouble()
+    {
+        return buffer.getDouble();
+    }
+
+    void setRecords(Entity[] records)
+    {
+        this.records = records;
+    }
+
+    Entity getRef()
+    {
+        int record = buffer.getInt();
+        if (record < -1 || record >= records.length) throw new IllegalStateException("Bad entity record " + record);
+        return record < 0 ? null : records[record];
+    }
+
+    /**
+     * Read a timer written by {@link SnapshotWriter#putTimer}.
+     * @param timer the owner's timer, or null to create one for {@code action} if it was pending
+     * @return the timer, or null if it was null and not pending
+     */
+    Timer getTimer(Timer timer, Runnable action)
+    {
+        if (!getBoolean()) return timer;
+        if (timer == null) timer = new Timer(action);
+        timers.add(new PendingTimer(timer, buffer.getInt(), buffer.getLong()));
+        return timer;
+    }
+
+    /**
+     * Schedule every pending timer read so far on the island, in the order
+     * they were originally scheduled.
+     */
+    void scheduleTimers()
+    {
+        timers.sort(Comparator.comparingLong(PendingTimer::sequence));
+        for (PendingTimer pending : timers)
+        {
+            island.schedule(pending.timer(), pending.deadline() - island.getTickCount());
+        }
+        timers.clear();
+    }
+
+    int position()
+    {
+        return buffer.position();
+    }
+
+    void position(int position)
+    {
+        buffer.position(position);
+    }
+}
@@ -0,0 +1,136 @@
+package com.mojang.tower;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mojang.tower.timer.Timer;
+
+/**
+ * Appends snapshot fields to a growing little-endian ByteBuffer.
+ *
+ * Entity references are written as record numbers. Every entity referenced
+ * gets a record, in the order first seen, so entities that already left the
+ * island (e.g. a dead job target) are saved too; see {@link Snapshot}.
+ */
+final class SnapshotWriter
+{
+    private ByteBuffer buffer;
+    private final Map<Entity, Integer> recordOf = new IdentityHashMap<>();
+    private final List<Entity> records = new ArrayList<>();
+
+    SnapshotWriter(int capacity)
+    {
+        buffer = ByteBuffer.allocate(Math.max(capacity, 64)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    void putByte(int value)
+    {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    void putBoolean(boolean value)
+    {
+        putByte(value ? 1 : 0);
+    }
+
+    void putShort(int value)
+    {
+        ensure(2);
+        buffer.putShort((short) value);
+    }
+
+    void putInt(int value)
+    {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value)
+    {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    void putDouble(double value)
+    {
+        ensure(8);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Write a reference to an entity, giving it a record if it has none yet.
+     */
+    void putRef(Entity entity)
+    {
+        putInt(record(entity));
+    }
+
+    int record(Entity entity)
+    {
+        if (entity == null) return -1;
+        Integer record = recordOf.get(entity);
+        if (record == null)
+        {
+            record = records.size();
+            recordOf.put(entity, record);
+            records.add(entity);
+        }
+        return record;
+    }
+
+    int recordCount()
+    {
+        return records.size();
+    }
+
+    Entity recordAt(int record)
+    {
+        return records.get(record);
+    }
+
+    /**
+     * Write whether a timer is pending and, if so, when it fires and its
+     * place in the firing order.
+     */
+    void putTimer(Timer timer)
+    {
+        boolean pending = timer != null && timer.isPending();
+        putBoolean(pending);
+        if (pending)
+        {
+            putInt(timer.deadline());
+            putLong(timer.sequence());
+        }
+    }
+
+    int position()
+    {
+        return buffer.position();
+    }
+
+    void putInt(int position, int value)
+    {
+        buffer.putInt(position, value);
+    }
+
+    /**
+     * @return the written bytes, ready for reading
+     */
+    ByteBuffer finish()
+    {
+        return buffer.flip();
+    }
+
+    private void ensure(int bytes)
+    {
+        if (buffer.remaining() >= bytes) return;
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes)).order(ByteOrder.LITTLE_ENDIAN);
+        larger.put(buffer.flip());
+        buffer = larger;
+    }
+}
@@ -1,12 +1,19 @@
 package com.mojang.tower;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 public abstract class Sound
 {
     public static class Select extends Sound
     {
-        public Select() { super(10); };
+        public Select() { super(10, 1, Select::new); };
+        protected int priority() { return 8; }
+        protected int maxVoices() { return 1; }
         
         protected void fill(int[] buffer, int len)
         {
@@ -20,7 +27,8 @@ public abstract class Sound
     public static class Plant extends Sound
     {
         int val = 0;
-        public Plant() { super(250); };
+        public Plant() { super(250, NOISE_VARIANTS, Plant::new); };
+        protected int priority() { return 3; }
         
         protected void fill(int[] buffer, int len)
         {
@@ -35,7 +43,8 @@ public abstract class Sound
     public static class FinishBuilding extends Sound
     {
         int val = 0;
-        public FinishBuilding() { super(50); };
+        public FinishBuilding() { super(50, NOISE_VARIANTS, FinishBuilding::new); };
+        protected int priority() { return 4; }
         
         protected void fill(int[] buffer, int len)
         {
@@ -50,7 +59,9 @@ public abstract class Sound
     public static class Gather extends Sound
     {
         int val = 0;
-        public Gather() { super(10); };
+        public Gather() { super(10, NOISE_VARIANTS, Gather::new); };
+        protected int priority() { return 1; }
+        protected int maxVoices() { return 3; }
         
         protected void fill(int[] buffer, int len)
         {
@@ -65,7 +76,8 @@ public abstract class Sound
     public static class Destroy extends Sound
     {
         int val = 0;
-        public Destroy() { super(1000); };
+        public Destroy() { super(1000, NOISE_VARIANTS, Destroy::new); };
+        protected int priority() { return 7; }
         
         protected void fill(int[] buffer, int len)
         {
@@ -79,7 +91,7 @@ public abstract class Sound
     
     public static class Spawn extends Sound
     {
-        public Spawn() { super(200); };
+        public Spawn() { super(200, 1, Spawn::new); };
         
         protected void fill(int[] buffer, int len)
         {
@@ -93,7 +105,7 @@ public abstract class Sound
     
     public static class SpawnWarrior extends Sound
     {
-        public SpawnWarrior() { super(400); };
+        public SpawnWarrior() { super(400, 1, SpawnWarrior::new); };
         
         protected void fill(int[] buffer, int len)
         {
@@ -107,7 +119,8 @@ public abstract class Sound
     
     public static class Ding extends Sound
     {
-        public Ding() { super(200); };
+        public Ding() { super(200, 1, Ding::new); };
+        protected int priority() { return 4; }
         
         protected void fill(int[] buffer, int len)
         {
@@ -123,7 +136,9 @@ public abstract class Sound
     
     public static class WinSound extends Sound
     {
-        public WinSound() { super(200*5); };
+        public WinSound() { super(200*5, 1, WinSound::new); };
+        protected int priority() { return 10; }
+        protected int maxVoices() { return 1; }
         
         protected void fill(int[] buffer, int len)
         {
@@ -140,7 +155,9 @@ public abstract class Sound
 
     public static class Death extends Sound
     {
-        public Death() { super(250); };
+        public Death() { super(250, NOISE_VARIANTS, Death::new); };
+        protected int priority() { return 6; }
+        protected int maxVoices() { return 3; }
         double noise = 0;
         
         protected void fill(int[] buffer, int len)
@@ -161,7 +178,9 @@ public abstract class Sound
     
     public static class MonsterDeath extends Sound
     {
-        public MonsterDeath() { super(250); };
+        public MonsterDeath() { super(250, NOISE_VARIANTS, MonsterDeath::new); };
+        protected int priority() { return 6; }
+        protected int maxVoices() { return 3; }
         double noise = 0;
         
         protected void fill(int[] buffer, int len)
@@ -180,21 +199,112 @@ public abstract class Sound
         }
     }    
     
+    /**
+     * Number of pre-rendered takes of each noise-based sound; playing one
+     * picks a take at random, so repeats do not sound identical.
+     */
+    private static final int NOISE_VARIANTS = 4;
+    private static final Map<Class<?>, short[][]> BANKS = new ConcurrentHashMap<>();
+
     protected int p = 0;
     protected int duration;
     protected Random random = new Random();
+    private final int variants;
+    private final Supplier<Sound> generator;
+    private short[] samples;
     
-    protected Sound(int ms)
+    /**
+     * @param ms length of the sound
+     * @param variants takes to pre-render; 1 for sounds without noise
+     * @param generator creates a fresh instance to render a take with
+     */
+    protected Sound(int ms, int variants, Supplier<Sound> generator)
     {
         duration = Sounds.SAMPLE_RATE*ms/1000;
+        this.variants = variants;
+        this.generator = generator;
+    }
+
+    /**
+     * Render every sound type's samples now rather than on first play.
+     */
+    public static void renderAll()
+    {
+        for (Sound sound : new Sound[] { new Select(), new Plant(), new FinishBuilding(), new Gather(), new Destroy(),
+            new Spawn(), new SpawnWarrior(), new Ding(), new WinSound(), new Death(), new MonsterDeath() })
+        {
+            sound.bank();
+        }
     }
     
+    /**
+     * Mix the next {@code len} samples into the buffer.
+     * @return false once the sound has finished
+     */
     public boolean read(int[] buffer, int len)
     {
-        if (p+len>duration) len = duration-p;
-        fill(buffer, len);
-        return p<=duration;
+        if (samples == null)
+        {
+            short[][] bank = bank();
+            samples = bank[bank.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(bank.length)];
+        }
+        if (p+len>samples.length) len = samples.length-p;
+        for (int i=0; i<len; i++)
+        {
+            buffer[i] += samples[p+i];
+        }
+        p += len;
+        return p<samples.length;
+    }
+
+    private short[][] bank()
+    {
+        short[][] bank = BANKS.get(getClass());
+        if (bank != null) return bank;
+        return BANKS.computeIfAbsent(getClass(), type -> {
+            short[][] takes = new short[variants][];
+            int[] pcm = new int[duration];
+            for (int v=0; v<variants; v++)
+            {
+                Arrays.fill(pcm, 0);
+                generator.get().fill(pcm, duration);
+                takes[v] = new short[duration];
+                for (int i=0; i<duration; i++)
+                {
+                    takes[v][i] = (short) pcm[i];
+                }
+            }
+            return takes;
+        });
+    }
+
+    /**
+     * @return how much this sound matters when the mixer must drop one; higher wins
+     */
+    protected int priority()
+    {
+        return 5;
+    }
+
+    /**
+     * @return how many sounds of this type may play at once
+     */
+    protected int maxVoices()
+    {
+        return 2;
+    }
+
+    /**
+     * @return samples left to play
+     */
+    int remaining()
+    {
+        return samples == null ? duration : samples.length-p;
     }
 
+    /**
+     * Generate the waveform into {@code buffer}, advancing {@code p}. Called
+     * once per take, on a fresh instance, when the type is first rendered.
+     */
     protected abstract void fill(int[] buffer, int len);
 }
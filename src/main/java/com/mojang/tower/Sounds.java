@@ -1,19 +1,38 @@
 package com.mojang.tower;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
 
 import javax.sound.sampled.*;
 
 public class Sounds implements Runnable
 {
-    public static Sounds instance = new Sounds();
+    // Created on first use, so runs that never play a sound never open an audio line
+    private static final class Holder
+    {
+        static final Sounds INSTANCE = new Sounds();
+    }
+
     private boolean soundAvailable = true;
     private static boolean isMute = false;
     public static final int SAMPLE_RATE = 44100;
+
+    // The mixer writes fixed periods of about 12 ms and keeps a few of them
+    // queued on the line: more after an underrun, fewer once it has been
+    // clean for a while
+    private static final int PERIOD = 512;
+    private static final int MIN_TARGET_PERIODS = 2;
+    private static final int MAX_TARGET_PERIODS = 8;
+    private static final int CLEAN_PERIODS_BEFORE_SHRINK = SAMPLE_RATE * 10 / PERIOD;
     
     private SourceDataLine dataLine;
-    private List<Sound> sounds = new ArrayList<Sound>();
+    private volatile int targetPeriods = MIN_TARGET_PERIODS;
+    private volatile int latencyFrames = 0;
+    private volatile long underruns = 0;
+    // Any thread submits without locking; only the mixer thread touches the voices
+    private final Queue<Sound> submitted = new ConcurrentLinkedQueue<Sound>();
+    private final VoicePool voices = new VoicePool();
     
 
     private Sounds()
@@ -24,7 +43,7 @@ public class Sounds implements Runnable
         {
             AudioFormat audioFormat = new AudioFormat(SAMPLE_RATE, 8, 1, true, true);
             dataLine = AudioSystem.getSourceDataLine(audioFormat);
-            dataLine.open(audioFormat, SAMPLE_RATE/10);
+            dataLine.open(audioFormat, PERIOD * MAX_TARGET_PERIODS);
             dataLine.start();
 
             Thread thread = new Thread(this);
@@ -40,9 +59,14 @@ public class Sounds implements Runnable
     
     public static void play(Sound sound)
     {
-        instance.addSound(sound);
+        instance().addSound(sound);
     }
     
+    public static Sounds instance()
+    {
+        return Holder.INSTANCE;
+    }
+
     public static void setMute(boolean mute)
     {
         isMute = mute;
@@ -57,46 +81,49 @@ public class Sounds implements Runnable
     {
         if (!soundAvailable) return;
         
-        synchronized (sounds)
-        {
-            sounds.add(sound);
-        }
+        submitted.offer(sound);
+    }
+
+    /**
+     * @return time from mixing a sample to hearing it, as last measured
+     */
+    public double getLatencyMillis()
+    {
+        return latencyFrames * 1000.0 / SAMPLE_RATE;
+    }
+
+    /**
+     * @return times the line ran dry because the mixer fell behind
+     */
+    public long getUnderrunCount()
+    {
+        return underruns;
+    }
+
+    /**
+     * @return audio the mixer currently aims to keep queued on the line
+     */
+    public double getBufferTargetMillis()
+    {
+        return targetPeriods * PERIOD * 1000.0 / SAMPLE_RATE;
     }
 
     public void run()
     {
-        int bufferSize = 4096;
-        int[] buffer = new int[4096];
-        byte[] outBuffer = new byte[4096];
+        int[] buffer = new int[PERIOD];
+        byte[] outBuffer = new byte[PERIOD];
+        int lineSize = dataLine.getBufferSize();
+        long written = 0;
+        int cleanPeriods = 0;
+        // Render every sound's samples up front, so no play has to wait for it
+        Sound.renderAll();
         while (true)
         {
-            while (dataLine.available() < bufferSize)
-            {
-                try
-                {
-                    Thread.sleep(2);
-                }
-                catch (InterruptedException e)
-                {
-                }
-            }
-
-            int toRead = dataLine.available();
-            if (toRead > bufferSize) toRead = bufferSize;
-
-            synchronized (sounds)
-            {
-                for (int i=0; i<sounds.size(); i++)
-                {
-                    if (!sounds.get(i).read(buffer, toRead))
-                    {
-                        sounds.remove(i--);
-                    }
-                }
-            }
+            takeSubmitted();
+            voices.mix(buffer, PERIOD);
 
             int val = 0;
-            for (int i = 0; i < toRead; i++)
+            for (int i = 0; i < PERIOD; i++)
             {
                 if (!isMute)
                 {
@@ -108,7 +135,38 @@ public class Sounds implements Runnable
                 buffer[i]=0;
                 outBuffer[i] = (byte)val;
             }
-            dataLine.write(outBuffer, 0, toRead);
+
+            if (written > 0 && dataLine.available() >= lineSize)
+            {
+                // Everything queued has played: there was a gap, so keep more queued
+                underruns++;
+                cleanPeriods = 0;
+                if (targetPeriods < MAX_TARGET_PERIODS) targetPeriods++;
+            }
+            else if (++cleanPeriods >= CLEAN_PERIODS_BEFORE_SHRINK)
+            {
+                cleanPeriods = 0;
+                if (targetPeriods > MIN_TARGET_PERIODS) targetPeriods--;
+            }
+
+            // Blocks only if the line is full
+            dataLine.write(outBuffer, 0, PERIOD);
+            written += PERIOD;
+
+            // Wait until only the target is left queued, rather than polling the line
+            long queued = written - dataLine.getLongFramePosition();
+            latencyFrames = (int) queued;
+            long ahead = queued - (long) targetPeriods * PERIOD;
+            if (ahead > 0) LockSupport.parkNanos(ahead * 1_000_000_000L / SAMPLE_RATE);
+        }
+    }
+
+    private void takeSubmitted()
+    {
+        Sound sound;
+        while ((sound = submitted.poll()) != null)
+        {
+            voices.admit(sound);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.mojang.tower;
+
+/**
+ * Short-lived list of targets a peon failed to reach.
+ *
+ * Entries are (entity id, expiry tick) pairs kept in a ring in the order
+ * they were added. Every entry lives for the same duration, so that is also
+ * expiry order: expiring entries only ever pops from the head, and costs
+ * nothing when the head is not yet due. Holding ids instead of entities
+ * keeps dead targets collectable.
+ */
+final class TargetBlacklist
+{
+    private final int duration;
+    private int[] ids = new int[4];
+    private int[] expiries = new int[4];
+    private int head;
+    private int size;
+
+    TargetBlacklist(int duration)
+    {
+        this.duration = duration;
+    }
+
+    /**
+     * Blacklist an entity until {@code now + duration}. Re-adding an entity
+     * moves its entry to the back with the new expiry. Entities without an
+     * id (not on an island) are ignored.
+     */
+    void add(Entity target, int now)
+    {
+        int id = target.getId();
+        if (id < 0) return;
+        int index = indexOf(id);
+        if (index >= 0)
+        {
+            // Close the gap so the ring stays in expiry order
+            for (int i = index; i < size - 1; i++)
+            {
+                int to = (head + i) & (ids.length - 1);
+                int from = (head + i + 1) & (ids.length - 1);
+                ids[to] = ids[from];
+                expiries[to] = expiries[from];
+            }
+            size--;
+        }
+        if (size == ids.length) grow();
+        int slot = (head + size) & (ids.length - 1);
+        ids[slot] = id;
+        expiries[slot] = now + duration;
+        size++;
+    }
+
+    /**
+     * Drop entries whose expiry is at or before {@code now}.
+     */
+    void expire(int now)
+    {
+        while (size > 0 && expiries[head] <= now)
+        {
+            head = (head + 1) & (ids.length - 1);
+            size--;
+        }
+    }
+
+    boolean contains(Entity target)
+    {
+        int id = target.getId();
+        return id >= 0 && indexOf(id) >= 0;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    void write(SnapshotWriter out)
+    {
+        out.putInt(size);
+        for (int i = 0; i < size; i++)
+        {
+            int slot = (head + i) & (ids.length - 1);
+            out.putInt(ids[slot]);
+            out.putInt(expiries[slot]);
+        }
+    }
+
+    void read(SnapshotReader in)
+    {
+        int count = in.getInt();
+        int capacity = 4;
+        while (capacity < count) capacity *= 2;
+        ids = new int[capacity];
+        expiries = new int[capacity];
+        for (int i = 0; i < count; i++)
+        {
+            ids[i] = in.getInt();
+            expiries[i] = in.getInt();
+        }
+        head = 0;
+        size = count;
+    }
+
+    /**
+     * @return position of the id counted from the head, or -1
+     */
+    private int indexOf(int id)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (ids[(head + i) & (ids.length - 1)] == id) return i;
+        }
+        return -1;
+    }
+
+    private void grow()
+    {
+        int[] newIds = new int[ids.length * 2];
+        int[] newExpiries = new int[ids.length * 2];
+        for (int i = 0; i < size; i++)
+        {
+            int slot = (head + i) & (ids.length - 1);
+            newIds[i] = ids[slot];
+            newExpiries[i] = expiries[slot];
+        }
+        ids = newIds;
+        expiries = newExpiries;
+        head = 0;
+    }
+}
@@ -16,6 +16,12 @@ public final class Tower extends Entity
         h = 80;
     }
 
+    public void init(Island island, Bitmaps bitmaps)
+    {
+        super.init(island, bitmaps);
+        island.addResourceSource(Resources.ROCK, this);
+    }
+
     public void tick()
     {
         if (random.nextInt(100) == 0 && island.monsterPopulation < minMonsters)
@@ -31,6 +37,24 @@ public final class Tower extends Entity
         }
     }
 
+    void writeState(SnapshotWriter out)
+    {
+        super.writeState(out);
+        out.putInt(h);
+        out.putInt(staminaPerLevel);
+        out.putInt(stamina);
+        out.putInt(minMonsters);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        h = in.getInt();
+        staminaPerLevel = in.getInt();
+        stamina = in.getInt();
+        minMonsters = in.getInt();
+    }
+
     public void render(Graphics2D g, double alpha)
     {
         int x = (int) (xr - 16);
@@ -5,33 +5,47 @@ import java.awt.event.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.*;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import com.mojang.tower.event.*;
-import com.mojang.tower.movement.MovementSystem;
-import com.mojang.tower.pathfinding.PathfindingService;
-import com.mojang.tower.service.ServiceLocator;
+import com.mojang.tower.service.SoundsAdapter;
 import com.mojang.tower.state.*;
 
 public class TowerComponent extends Canvas implements Runnable, MouseListener, MouseMotionListener, KeyListener
 {
     public static final int TICKS_PER_SECOND = 30;
     private static final int MAX_TICKS_PER_FRAME = 10;
+    private static final int[] SPEEDS = { 1, 2, 4, 8, 16 };
+    private static final Path QUICKSAVE = Path.of("tower.sav");
+    private static final Path COMMAND_LOG = Path.of("tower.commands");
+    private static final int MAX_SOUNDS_PER_TICK = 2; // per sound type
+    private static final int AUDIO_EVENT_CAPACITY = 64; // sounds beyond this are dropped rather than stalling the tick
     private static final long serialVersionUID = 1L;
 
     private boolean running;
     private int width, height;
-    private VolatileImage image;
-    private Thread thread;
+    private transient VolatileImage image;
+    private transient Thread thread;
     private int tickCount;
     private int frames;
     private boolean paused;
+    private int speed = 1; // island ticks per game tick
 
     private int xMouse = -1, yMouse;
     private double xRot, xRotA;
 
-    Bitmaps bitmaps = new Bitmaps();
-    private Island island;
+    transient Bitmaps bitmaps = new Bitmaps();
+    private transient WorldContext world;
+    private transient AsyncChannel<SoundEvent> audioEvents;
+    private transient EventJournal journal;
+    private long seed;
+    private transient CommandLog commands;
+    private transient Island island;
+    private final transient List<Entity> drawOrder = new ArrayList<>();
 
     private boolean scrolling = false;
     private double xScrollStart;
@@ -39,7 +53,7 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
     private int xCenter;
     private int yCenter;
     private int selectedHouseType = 0;
-    private GameState currentState = new TitleState();
+    private transient GameState currentState = new TitleState();
     private int gameTime = 0, winScore = 0;
 
     public TowerComponent(int width, int height)
@@ -108,23 +122,91 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
             e.printStackTrace();
         }
 
-        // Initialize services and wire event handlers
-        ServiceLocator.initializeDefaults();
-        EventBus.subscribe(SoundEvent.class, this::handleSoundEvent);
-        EventBus.subscribe(EffectEvent.class, this::handleEffectEvent);
+        // The world owns the event bus and services; wire handlers before the island publishes anything
+        // Seeded, so the session can be replayed from its command log
+        seed = System.nanoTime();
+        world = new WorldContext(seed, new SoundsAdapter());
+        // Audio may stall on the sound line, so it takes sound events on its own thread
+        audioEvents = new AsyncChannel<>("Audio events", AUDIO_EVENT_CAPACITY, AsyncChannel.Overflow.DROP, this::handleSoundEvent);
+        world.events().register(SoundEvent.class, audioEvents);
+        world.events().register(EffectEvent.class, this::handleEffectEvent);
+        // Deliver events between ticks rather than mid-tick, without stacking identical sounds
+        world.events().setDeferred(true);
+        world.events().coalesce(SoundEvent.class, MAX_SOUNDS_PER_TICK);
+        openJournal();
+
+        island = new Island(world, bitmaps, bitmaps.island, this::win);
+        startCommandLog(null);
+    }
 
-        // Initialize MovementSystem BEFORE Island (Island creation triggers entity ticks)
-        var movementSystem = new MovementSystem();
-        ServiceLocator.provide(movementSystem);
+    /**
+     * Start logging the session's commands from the current island.
+     * @param snapshot the snapshot the island was just restored from, or null for a new island
+     */
+    private void startCommandLog(ByteBuffer snapshot)
+    {
+        closeCommandLog();
+        try
+        {
+            commands = new CommandLog(COMMAND_LOG, seed, snapshot, island);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Not logging commands: " + e.getMessage());
+        }
+    }
 
-        island = new Island(this, bitmaps.island);
+    private void closeCommandLog()
+    {
+        if (commands == null) return;
+        try
+        {
+            commands.close();
+        }
+        catch (IOException e)
+        {
+            System.err.println("Failed to close command log: " + e.getMessage());
+        }
+        commands = null;
+    }
 
-        // Now that Island exists, inject it into MovementSystem
-        movementSystem.setNavigationGrid(island);
+    /**
+     * Apply a player command to the island, logging it for replay.
+     */
+    private void issue(Command command)
+    {
+        if (commands != null)
+        {
+            try
+            {
+                commands.append(command);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Command log failed, no longer logging: " + e.getMessage());
+                commands = null;
+            }
+        }
+        command.apply(island);
+    }
 
-        // Initialize PathfindingService with Island as NavigationGrid
-        PathfindingService pathfindingService = new PathfindingService(island);
-        ServiceLocator.provide(pathfindingService);
+    /**
+     * Journal every event of the session if -Dtower.journal=DIR is set.
+     */
+    private void openJournal()
+    {
+        String directory = System.getProperty("tower.journal");
+        if (directory == null) return;
+        try
+        {
+            journal = new EventJournal(Path.of(directory), () -> island == null ? 0 : island.getTickCount());
+            // A tap, so sounds dropped by coalescing are journaled too
+            world.events().tap(journal);
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
     }
 
     private void handleSoundEvent(SoundEvent event)
@@ -144,7 +226,7 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
             case MonsterDeathSound() -> new Sound.MonsterDeath();
             case WinSound() -> new Sound.WinSound();
         };
-        if (sound != null) ServiceLocator.audio().play(sound);
+        if (sound != null) world.audio().play(sound);
     }
 
     private void handleEffectEvent(EffectEvent event)
@@ -192,6 +274,9 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
                 e.printStackTrace();
             }
         }
+        audioEvents.close();
+        closeCommandLog();
+        if (journal != null) journal.close();
     }
 
     private void tick()
@@ -230,16 +315,18 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
             frames = 0;
         }
 
-        // State-driven game time
-        if (currentState.shouldIncrementGameTime())
+        // State-driven game time and island tick; fast-forward runs several
+        // island ticks per game tick, so at most MAX_TICKS_PER_FRAME * speed per frame
+        for (int i = 0; i < speed; i++)
         {
-            gameTime++;
-        }
-
-        // State-driven island tick
-        if (currentState.shouldTickIsland())
-        {
-            island.tick();
+            if (currentState.shouldIncrementGameTime())
+            {
+                gameTime++;
+            }
+            if (currentState.shouldTickIsland())
+            {
+                island.tick();
+            }
         }
 
         // State tick (may return new state)
@@ -323,7 +410,10 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
             e.updatePos(sin, cos, alpha);
         }
 
-        Collections.sort(island.entities);
+        // Sort a copy: the island's list is its tick order, which must not depend on the view
+        drawOrder.clear();
+        drawOrder.addAll(island.entities);
+        Collections.sort(drawOrder);
 
         AffineTransform af = g.getTransform();
         g.translate(xCenter, yCenter);
@@ -336,8 +426,8 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
 
         g.translate(xCenter, yCenter);
 
-        for (int i = 0; i < island.entities.size(); i++)
-            island.entities.get(i).render(g, alpha);
+        for (int i = 0; i < drawOrder.size(); i++)
+            drawOrder.get(i).render(g, alpha);
 
         if (currentState instanceof PlayingState)
         {
@@ -464,13 +554,13 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
                     pop = "Warriors: " + island.warriorPopulation + " / " + island.warriorPopulationCap;
                     g.drawString(pop, 4 - i, 12 - i + 11 * 2);
 
-                    g.drawString("Time: " + timeStr, 4 - i, 12 - i + 11 * 0);
+                    g.drawString("Time: " + timeStr + (speed > 1 ? "  (" + speed + "x)" : ""), 4 - i, 12 - i + 11 * 0);
                     g.setColor(Color.WHITE);
                 }
             }
         }
         
-        g.drawImage(bitmaps.soundButtons[ServiceLocator.audio().isMute()?1:0], width-20, height-20, null);
+        g.drawImage(bitmaps.soundButtons[world.audio().isMute()?1:0], width-20, height-20, null);
     }
 
     public void mouseClicked(MouseEvent me)
@@ -492,7 +582,7 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
         {
             if (me.getX()>=width*2-40 && me.getY()>=height*2-40 && me.getX()<=width*2-40+32 && me.getY()<=height*2-40+32)
             {
-                ServiceLocator.audio().setMute(!ServiceLocator.audio().isMute());
+                world.audio().setMute(!world.audio().isMute());
                 return;
             }
             
@@ -518,14 +608,14 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
                         if (selectedHouseType!=i)
                         {
                             selectedHouseType = i;
-                            EventBus.publish(new SelectSound());
+                            world.events().dispatch(SelectSound.INSTANCE);
                         }
                     }
                 }
 
                 if (selectedHouseType >= 0)
                 {
-                    island.placeHouse(me.getX() - xCenter * 2, me.getY() - yCenter * 2, HouseType.houseTypes[selectedHouseType]);
+                    issue(new Command.PlaceHouse(me.getX() - xCenter * 2, me.getY() - yCenter * 2, island.rot, selectedHouseType));
                 }
                 else
                 {
@@ -538,7 +628,7 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
                     });
                     if (e instanceof House house)
                     {
-                        house.sell();
+                        issue(new Command.SellHouse(house.getId()));
                     }
                 }
             }
@@ -577,6 +667,26 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
         {
             reloadSprites();
         }
+
+        // F6 = quicksave, F9 = quickload
+        if (ke.getKeyCode() == KeyEvent.VK_F6)
+        {
+            quickSave();
+        }
+        if (ke.getKeyCode() == KeyEvent.VK_F9)
+        {
+            quickLoad();
+        }
+
+        // 1-5 = game speed 1x, 2x, 4x, 8x, 16x
+        int speedKey = ke.getKeyCode() - KeyEvent.VK_1;
+        if (speedKey >= 0 && speedKey < SPEEDS.length)
+        {
+            synchronized (this)
+            {
+                speed = SPEEDS[speedKey];
+            }
+        }
     }
 
     public void keyReleased(KeyEvent ke)
@@ -602,6 +712,46 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
         }
     }
 
+    private synchronized void quickSave()
+    {
+        if (island == null) return;
+        try
+        {
+            Snapshot.save(QUICKSAVE, Snapshot.write(island, new Snapshot.Game(currentState, gameTime, winScore)));
+            System.out.println("Saved to " + QUICKSAVE);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Failed to save: " + e.getMessage());
+        }
+    }
+
+    private synchronized void quickLoad()
+    {
+        if (island == null) return;
+        try
+        {
+            ByteBuffer snapshot = Snapshot.load(QUICKSAVE);
+            Snapshot.Restored restored = Snapshot.read(snapshot, world, bitmaps, bitmaps.island, this::win);
+            island = restored.island();
+            // Replays start from the loaded state
+            startCommandLog(snapshot);
+            xRot = island.rot;
+            xRotA = 0;
+            if (restored.game() != null)
+            {
+                transitionTo(restored.game().state());
+                gameTime = restored.game().gameTime();
+                winScore = restored.game().winScore();
+            }
+            System.out.println("Loaded " + QUICKSAVE);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            System.err.println("Failed to load: " + e.getMessage());
+        }
+    }
+
     public static void main(String[] args)
     {
         // Enable hot-reload: load sprites from res/ folder if it exists
@@ -631,9 +781,17 @@ public class TowerComponent extends Canvas implements Runnable, MouseListener, M
         tower.start();
     }
 
+    /**
+     * Score for destroying the tower after {@code gameTime} ticks of play.
+     */
+    public static int winScore(int gameTime)
+    {
+        return 100000 * (TowerComponent.TICKS_PER_SECOND * 60 * 30) / gameTime;
+    }
+
     public void win()
     {
-        winScore = 100000 * (TowerComponent.TICKS_PER_SECOND * 60 * 30) / (gameTime);
+        winScore = winScore(gameTime);
         transitionTo(new WonState());
     }
 }
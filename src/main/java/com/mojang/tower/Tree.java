@@ -18,6 +18,12 @@ public final class Tree extends Entity
         spreadDelay = random.nextInt(SPREAD_INTERVAL);
     }
 
+    public void init(Island island, Bitmaps bitmaps)
+    {
+        super.init(island, bitmaps);
+        if (givesResource(Resources.WOOD)) island.addResourceSource(Resources.WOOD, this);
+    }
+
     public void tick()
     {
         if (age < 15 * GROW_SPEED)
@@ -25,19 +31,45 @@ public final class Tree extends Entity
             age++;
             stamina++;
             yield++;
+            if (age == 7 * GROW_SPEED) island.addResourceSource(Resources.WOOD, this);
         }
-        else if (spreadDelay-- <= 0 && SPREAD_INTERVAL>0)
+        else
         {
-            double xp = x + random.nextGaussian() * 8;
-            double yp = y + random.nextGaussian() * 8;
-            Tree tree = new Tree(xp, yp, 0);
+            if (spreadDelay-- <= 0 && SPREAD_INTERVAL>0)
+            {
+                double xp = x + random.nextGaussian() * 8;
+                double yp = y + random.nextGaussian() * 8;
+                Tree tree = new Tree(xp, yp, 0);
 
-            if (island.isFree(tree.x, tree.y, tree.r)) island.addEntity(tree);
+                if (island.isFree(tree.x, tree.y, tree.r)) island.addEntity(tree);
 
-            spreadDelay = SPREAD_INTERVAL;
+                spreadDelay = SPREAD_INTERVAL;
+            }
+
+            // The next spreadDelay ticks would only count down; sleep through them
+            sleep(spreadDelay);
+            spreadDelay = 0;
         }
     }
 
+    void writeState(SnapshotWriter out)
+    {
+        super.writeState(out);
+        out.putInt(age);
+        out.putInt(spreadDelay);
+        out.putInt(stamina);
+        out.putInt(yield);
+    }
+
+    void readState(SnapshotReader in)
+    {
+        super.readState(in);
+        age = in.getInt();
+        spreadDelay = in.getInt();
+        stamina = in.getInt();
+        yield = in.getInt();
+    }
+
     public void render(Graphics2D g, double alpha)
     {
         int x = (int) (xr - 4);
@@ -0,0 +1,109 @@
+package com.mojang.tower;
+
+import java.util.Arrays;
+
+/**
+ * The fixed set of sounds the mixer plays at once. Owned by the mixer
+ * thread.
+ *
+ * A new sound takes a free voice if there is one. Each sound type also has
+ * a cap on how many of it may play at once; a sound over its cap replaces
+ * the playing sound of its own type that is closest to finishing. When all
+ * voices are busy, it replaces the lowest-priority sound, again the one
+ * closest to finishing among equals, unless everything playing outranks it,
+ * in which case it is dropped. Sounds fade out as they play, so the one
+ * closest to finishing is usually both the oldest and the quietest.
+ *
+ * Mixing costs at most {@link #MAX_VOICES} voices per period however many
+ * sounds the game asks for.
+ */
+final class VoicePool
+{
+    public static final int MAX_VOICES = 12;
+
+    private final Sound[] voices = new Sound[MAX_VOICES];
+    private int count = 0;
+    private long stolen = 0;
+    private long dropped = 0;
+
+    /**
+     * Start playing a sound, replacing another if needed.
+     * @return false if the sound was dropped
+     */
+    boolean admit(Sound sound)
+    {
+        int sameType = 0;
+        int sameTypeVictim = -1;
+        for (int i = 0; i < count; i++)
+        {
+            if (voices[i].getClass() == sound.getClass())
+            {
+                sameType++;
+                if (sameTypeVictim < 0 || voices[i].remaining() < voices[sameTypeVictim].remaining()) sameTypeVictim = i;
+            }
+        }
+        if (sameType >= sound.maxVoices())
+        {
+            voices[sameTypeVictim] = sound;
+            stolen++;
+            return true;
+        }
+        if (count < voices.length)
+        {
+            voices[count++] = sound;
+            return true;
+        }
+
+        int victim = 0;
+        for (int i = 1; i < count; i++)
+        {
+            int byPriority = Integer.compare(voices[i].priority(), voices[victim].priority());
+            if (byPriority < 0 || byPriority == 0 && voices[i].remaining() < voices[victim].remaining()) victim = i;
+        }
+        if (voices[victim].priority() > sound.priority())
+        {
+            dropped++;
+            return false;
+        }
+        voices[victim] = sound;
+        stolen++;
+        return true;
+    }
+
+    /**
+     * Mix every voice into the buffer, dropping finished voices by moving the
+     * rest down in place.
+     */
+    void mix(int[] buffer, int len)
+    {
+        int live = 0;
+        for (int i = 0; i < count; i++)
+        {
+            Sound voice = voices[i];
+            if (voice.read(buffer, len)) voices[live++] = voice;
+        }
+        Arrays.fill(voices, live, count, null);
+        count = live;
+    }
+
+    int size()
+    {
+        return count;
+    }
+
+    /**
+     * @return sounds that were cut off to make room for another
+     */
+    long getStolenCount()
+    {
+        return stolen;
+    }
+
+    /**
+     * @return sounds that were not played because every voice outranked them
+     */
+    long getDroppedCount()
+    {
+        return dropped;
+    }
+}
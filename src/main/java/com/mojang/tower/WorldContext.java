@@ -0,0 +1,206 @@
+package com.mojang.tower;
+
+import com.mojang.tower.event.EventBus;
+import com.mojang.tower.movement.MovementSystem;
+import com.mojang.tower.pathfinding.PathfindingService;
+import com.mojang.tower.service.AudioService;
+import com.mojang.tower.service.NullAudioService;
+import com.mojang.tower.service.ServiceLocator;
+
+/**
+ * Everything one island simulation needs besides the island itself: its
+ * event bus, movement and pathfinding services, audio, and the seeds for
+ * entity and job random generators. Separate worlds share nothing, so
+ * several islands can run side by side in one JVM, one per thread.
+ *
+ * Entities and jobs reach their world through the island they belong to.
+ * Entities also draw a random generator when constructed, which is usually
+ * before they are added to an island; for that, the island binds its world
+ * to the current thread while it is being built, ticked or edited, and
+ * constructors ask {@link #current()} for the next seed.
+ *
+ * {@link #shared()} is a compatibility world backed by the process-wide
+ * EventBus, ServiceLocator and static test seeds, for code that still sets
+ * those up directly.
+ */
+public final class WorldContext
+{
+    private static final ThreadLocal<WorldContext> CURRENT = new ThreadLocal<>();
+    private static final long JOB_SEED_OFFSET = 1000000;
+
+    private final boolean shared;
+    private final EventBus events;
+    private final MovementSystem movement;
+    private PathfindingService pathfinding;
+    private AudioService audio;
+    private Long entitySeed;
+    private Long jobSeed;
+    private int entitySeedCounter = 0;
+    private int jobSeedCounter = 0;
+
+    /**
+     * Create an independent world.
+     * @param seed base seed for entity and job random generators; null for unseeded
+     * @param audio receives sounds played in this world
+     */
+    public WorldContext(Long seed, AudioService audio)
+    {
+        this(false, seed, audio);
+    }
+
+    /**
+     * Create a silent, seeded world, e.g. for headless runs.
+     */
+    public WorldContext(long seed)
+    {
+        this(false, seed, new NullAudioService());
+    }
+
+    private WorldContext(boolean shared, Long seed, AudioService audio)
+    {
+        this.shared = shared;
+        this.entitySeed = seed;
+        this.jobSeed = seed == null ? null : seed + JOB_SEED_OFFSET;
+        this.audio = audio;
+        this.events = shared ? null : new EventBus();
+        this.movement = shared ? null : new MovementSystem();
+    }
+
+    /**
+     * @return a world that delegates to the process-wide static services
+     */
+    public static WorldContext shared()
+    {
+        return new WorldContext(true, null, null);
+    }
+
+    /**
+     * @return the world bound to this thread, or null outside of any island
+     */
+    public static WorldContext current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind this world to the current thread.
+     * @return the previously bound world, to pass to {@link #unbind}
+     */
+    WorldContext bind()
+    {
+        WorldContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    static void unbind(WorldContext previous)
+    {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+    /**
+     * Hook the navigation services up to the island this world simulates.
+     */
+    void attach(Island island)
+    {
+        if (shared) return;
+        movement.setNavigationGrid(island);
+        pathfinding = new PathfindingService(island);
+    }
+
+    public EventBus events()
+    {
+        return shared ? EventBus.global() : events;
+    }
+
+    public MovementSystem movement()
+    {
+        return shared ? ServiceLocator.movement() : movement;
+    }
+
+    public PathfindingService pathfinding()
+    {
+        if (shared) return ServiceLocator.pathfinding();
+        if (pathfinding == null) throw new IllegalStateException("World is not attached to an island yet");
+        return pathfinding;
+    }
+
+    public AudioService audio()
+    {
+        return shared ? ServiceLocator.audio() : audio;
+    }
+
+    public void setAudio(AudioService audio)
+    {
+        if (shared) ServiceLocator.provide(audio);
+        else this.audio = audio;
+    }
+
+    /**
+     * Random generator for a new entity: seeded from the world bound to this
+     * thread if there is one, otherwise from the static test seed.
+     */
+    static SimRandom newEntityRandom()
+    {
+        WorldContext world = CURRENT.get();
+        if (world == null || world.shared) return Entity.createLegacyRandom();
+        return world.entitySeed == null ? new SimRandom() : new SimRandom(world.entitySeed + world.entitySeedCounter++);
+    }
+
+    /**
+     * Random generator for a new job, as {@link #newEntityRandom()}.
+     */
+    static SimRandom newJobRandom()
+    {
+        WorldContext world = CURRENT.get();
+        if (world == null || world.shared) return Job.createLegacyRandom();
+        return world.jobSeed == null ? new SimRandom() : new SimRandom(world.jobSeed + world.jobSeedCounter++);
+    }
+
+    /**
+     * Save where entity and job seeding has got to, see {@link Snapshot}.
+     */
+    void writeSeeds(SnapshotWriter out)
+    {
+        if (shared)
+        {
+            putSeed(out, Entity.testSeedBase, Entity.testSeedCounter);
+            putSeed(out, Job.testSeedBase, Job.testSeedCounter);
+        }
+        else
+        {
+            putSeed(out, entitySeed, entitySeedCounter);
+            putSeed(out, jobSeed, jobSeedCounter);
+        }
+    }
+
+    void readSeeds(SnapshotReader in)
+    {
+        Long entityBase = in.getBoolean() ? in.getLong() : null;
+        int entityCounter = in.getInt();
+        Long jobBase = in.getBoolean() ? in.getLong() : null;
+        int jobCounter = in.getInt();
+        if (shared)
+        {
+            Entity.testSeedBase = entityBase;
+            Entity.testSeedCounter = entityCounter;
+            Job.testSeedBase = jobBase;
+            Job.testSeedCounter = jobCounter;
+        }
+        else
+        {
+            entitySeed = entityBase;
+            entitySeedCounter = entityCounter;
+            jobSeed = jobBase;
+            jobSeedCounter = jobCounter;
+        }
+    }
+
+    private static void putSeed(SnapshotWriter out, Long base, int counter)
+    {
+        out.putBoolean(base != null);
+        if (base != null) out.putLong(base);
+        out.putInt(counter);
+    }
+}
@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a peon abandons an unreachable target. */
-public record AbandonedTargetSound() implements SoundEvent {}
+public record AbandonedTargetSound() implements SoundEvent {
+    public static final AbandonedTargetSound INSTANCE = new AbandonedTargetSound();
+}
@@ -0,0 +1,171 @@
+package com.mojang.tower.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded single-producer, single-consumer channel that hands events from
+ * the simulation thread to a consumer running on its own thread.
+ *
+ * Register a channel on an {@link EventBus} like any listener to move a slow
+ * or non-deterministic consumer, such as audio, off the tick:
+ * {@code bus.register(SoundEvent.class, channel)}. Subscribers that affect
+ * the simulation must stay synchronous.
+ *
+ * The ring buffer is lock-free: the producer only writes the tail and the
+ * consumer only writes the head, and neither allocates. When the consumer
+ * runs out of events it parks until the producer publishes more. When the
+ * ring is full the {@link Overflow} policy decides whether the producer
+ * drops the event or waits for room.
+ *
+ * Only one thread may call {@link #accept} at a time.
+ */
+public final class AsyncChannel<T> implements Consumer<T>, AutoCloseable {
+
+    /**
+     * What the producer does when the ring is full.
+     */
+    public enum Overflow {
+        /** Discard the new event and count it in {@link #dropped()}. */
+        DROP,
+        /** Wait until the consumer has made room. */
+        BLOCK
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Object[] slots;
+    private final int mask;
+    private final Overflow overflow;
+    private final Consumer<? super T> consumer;
+    private final Thread thread;
+
+    private volatile long head;
+    private volatile long tail;
+    private volatile boolean consumerParked;
+    private volatile Thread blockedProducer;
+    private volatile boolean closed;
+    private volatile long dropped;
+
+    /**
+     * Create the channel and start its consumer thread.
+     *
+     * @param name name of the consumer thread
+     * @param capacity ring size, rounded up to a power of two
+     * @param overflow what to do when the ring is full
+     * @param consumer called on the consumer thread for every event, in order
+     */
+    public AsyncChannel(String name, int capacity, Overflow overflow, Consumer<? super T> consumer) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+        this.overflow = overflow;
+        this.consumer = consumer;
+        this.thread = new Thread(this::consume, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Publish an event to the consumer thread. Events published after
+     * {@link #close()} are dropped.
+     */
+    @Override
+    public void accept(T event) {
+        offer(event);
+    }
+
+    /**
+     * @return true if the event was queued, false if it was dropped
+     */
+    public boolean offer(T event) {
+        long t = tail;
+        while (t - head >= slots.length) {
+            if (closed || overflow == Overflow.DROP) {
+                dropped++;
+                return false;
+            }
+            awaitRoom(t);
+        }
+        if (closed) {
+            dropped++;
+            return false;
+        }
+        slots[(int) t & mask] = event;
+        tail = t + 1;
+        if (consumerParked) LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * @return number of events dropped because the ring was full or closed
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * @return number of events queued and not yet taken by the consumer
+     */
+    public int pending() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * Stop accepting events, let the consumer finish the ones already queued
+     * and wait for its thread to end.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        Thread producer = blockedProducer;
+        if (producer != null) LockSupport.unpark(producer);
+        if (Thread.currentThread() == thread) return;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitRoom(long t) {
+        blockedProducer = Thread.currentThread();
+        // Re-check after announcing ourselves, so a consumer that just made room is not missed
+        if (t - head >= slots.length && !closed) {
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        blockedProducer = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consume() {
+        while (true) {
+            long h = head;
+            if (h == tail) {
+                if (closed) return;
+                consumerParked = true;
+                // Re-check after announcing we park, so an event published meanwhile is not missed
+                if (h == tail && !closed) LockSupport.park(this);
+                consumerParked = false;
+                continue;
+            }
+            int slot = (int) h & mask;
+            T event = (T) slots[slot];
+            slots[slot] = null;
+            head = h + 1;
+            Thread producer = blockedProducer;
+            if (producer != null) LockSupport.unpark(producer);
+
+            try {
+                consumer.accept(event);
+            } catch (RuntimeException e) {
+                // One bad event must not stop delivery of the rest
+                e.printStackTrace();
+            }
+        }
+    }
+}
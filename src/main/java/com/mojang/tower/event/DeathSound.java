@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a peon dies. */
-public record DeathSound() implements SoundEvent {}
+public record DeathSound() implements SoundEvent {
+    public static final DeathSound INSTANCE = new DeathSound();
+}
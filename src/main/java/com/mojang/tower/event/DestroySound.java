@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a building is destroyed. */
-public record DestroySound() implements SoundEvent {}
+public record DestroySound() implements SoundEvent {
+    public static final DestroySound INSTANCE = new DestroySound();
+}
@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a peon levels up. */
-public record DingSound() implements SoundEvent {}
+public record DingSound() implements SoundEvent {
+    public static final DingSound INSTANCE = new DingSound();
+}
@@ -5,6 +5,10 @@ package com.mojang.tower.event;
  *
  * Decouples entity classes from direct Puff/InfoPuff creation.
  * TowerComponent subscribes to these events and creates the actual entities.
+ *
+ * Unlike sound events they carry a position, so each publish allocates a
+ * new record. Publishers skip it when nobody listens (EventBus.hasListeners),
+ * so only runs with an effect handler, such as the game, pay for them.
  */
 public sealed interface EffectEvent permits PuffEffect, InfoPuffEffect {
 }
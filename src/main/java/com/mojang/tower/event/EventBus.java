@@ -1,8 +1,8 @@
 package com.mojang.tower.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
@@ -11,13 +11,71 @@ import java.util.function.Consumer;
  *
  * Events are dispatched synchronously within the same call stack,
  * which is critical for game determinism.
+ *
+ * A listener receives every event assignable to the type it subscribed to,
+ * so subscribing to a sealed interface such as SoundEvent covers all of its
+ * records. Listeners run in subscription order. The listeners for each
+ * concrete event class are resolved on first dispatch and cached; any
+ * subscribe or unsubscribe drops the cache, so dispatch itself is a single
+ * lookup with no allocation.
+ *
+ * In deferred mode, dispatch only queues the event in a ring buffer, and
+ * {@link #flush()} delivers the queue in publish order; Island flushes its
+ * world's bus at the end of every tick. Events published by listeners during
+ * a flush are delivered in the same flush. Coalescing rules cap how many
+ * events of one class are delivered between two flushes, in either mode;
+ * the rest are dropped. Dispatch and flush must happen on one thread.
+ *
+ * Taps see every event as it is published, before coalescing or deferral,
+ * e.g. to journal a session including the events coalescing drops.
+ *
+ * Each world owns its own bus (see WorldContext). The static methods
+ * operate on a single process-wide bus and remain for code that predates
+ * per-world contexts.
  */
 public final class EventBus {
-    private static final EventBus INSTANCE = new EventBus();
-    private final Map<Class<?>, List<Consumer<?>>> listeners = new ConcurrentHashMap<>();
+    private static final EventBus GLOBAL = new EventBus();
+    private record Subscription(Class<?> eventType, Consumer<?> listener) {
+    }
 
-    private EventBus() {
-        // Singleton
+    private record Limit(Class<?> eventType, int maxPerFlush) {
+    }
+
+    /**
+     * Listeners and coalescing state for one concrete event class.
+     */
+    private static final class Route {
+        final Consumer<Object>[] listeners;
+        final int limit;
+        int count;
+        int epoch;
+
+        Route(Consumer<Object>[] listeners, int limit) {
+            this.listeners = listeners;
+            this.limit = limit;
+        }
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Limit> limits = new CopyOnWriteArrayList<>();
+    private volatile ClassValue<Route> routes = newCache();
+    private volatile Consumer<Object>[] taps = consumers(0);
+
+    private boolean deferred = false;
+    private Object[] queue = new Object[16];
+    private int head;
+    private int size;
+    private boolean flushing = false;
+    private int epoch = 0;
+
+    public EventBus() {
+    }
+
+    /**
+     * @return the process-wide bus used by the static methods
+     */
+    public static EventBus global() {
+        return GLOBAL;
     }
 
     /**
@@ -27,10 +85,9 @@ public final class EventBus {
      * @param listener the consumer to invoke when events are published
      * @param <T> the event type
      */
-    public static <T> void subscribe(Class<T> eventType, Consumer<T> listener) {
-        INSTANCE.listeners
-            .computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>())
-            .add(listener);
+    public <T> void register(Class<T> eventType, Consumer<T> listener) {
+        subscriptions.add(new Subscription(eventType, listener));
+        routes = newCache();
     }
 
     /**
@@ -40,35 +97,211 @@ public final class EventBus {
      * @param listener the consumer to remove
      * @param <T> the event type
      */
-    public static <T> void unsubscribe(Class<T> eventType, Consumer<T> listener) {
-        var list = INSTANCE.listeners.get(eventType);
-        if (list != null) {
-            list.remove(listener);
+    public <T> void unregister(Class<T> eventType, Consumer<T> listener) {
+        if (subscriptions.remove(new Subscription(eventType, listener))) {
+            routes = newCache();
         }
     }
 
+    /**
+     * Pass every event to {@code tap} when it is published, ahead of any
+     * coalescing or deferral, so the tap also sees events that are never
+     * delivered. Taps run in the order they were added, before listeners.
+     */
+    public synchronized void tap(Consumer<Object> tap) {
+        Consumer<Object>[] larger = Arrays.copyOf(taps, taps.length + 1);
+        larger[taps.length] = tap;
+        taps = larger;
+    }
+
+    /**
+     * Remove a tap added with {@link #tap(Consumer)}.
+     */
+    public synchronized void untap(Consumer<Object> tap) {
+        List<Consumer<Object>> remaining = new ArrayList<>(Arrays.asList(taps));
+        if (remaining.remove(tap)) {
+            taps = remaining.toArray(consumers(0));
+        }
+    }
+
+    /**
+     * Deliver at most {@code maxPerFlush} events of each class assignable to
+     * {@code eventType} between two flushes, e.g. to keep a busy tick from
+     * stacking dozens of identical sounds. The strictest matching rule wins.
+     */
+    public void coalesce(Class<?> eventType, int maxPerFlush) {
+        if (maxPerFlush < 0) throw new IllegalArgumentException("maxPerFlush must not be negative");
+        limits.add(new Limit(eventType, maxPerFlush));
+        routes = newCache();
+    }
+
+    /**
+     * Switch between queueing events until {@link #flush()} (true) and
+     * delivering them immediately (false). Events still queued when leaving
+     * deferred mode are delivered at once.
+     */
+    public void setDeferred(boolean deferred) {
+        this.deferred = deferred;
+        if (!deferred) flush();
+    }
+
+    public boolean isDeferred() {
+        return deferred;
+    }
+
     /**
      * Publish an event to all registered listeners.
-     * Dispatches synchronously - all listeners are invoked before this method returns.
+     * Dispatches synchronously - all listeners are invoked before this method
+     * returns - unless the bus is in deferred mode.
      *
      * @param event the event to publish
      * @param <T> the event type
      */
-    @SuppressWarnings("unchecked")
-    public static <T> void publish(T event) {
-        var list = INSTANCE.listeners.get(event.getClass());
-        if (list != null) {
-            for (var listener : list) {
-                ((Consumer<T>) listener).accept(event);
+    public <T> void dispatch(T event) {
+        for (Consumer<Object> tap : taps) {
+            tap.accept(event);
+        }
+        Route route = routes.get(event.getClass());
+        if (route.limit != Integer.MAX_VALUE && !admit(route)) return;
+
+        if (deferred) {
+            enqueue(event);
+        } else {
+            deliver(route, event);
+        }
+    }
+
+    /**
+     * @return true if an event of this class would reach any listener or tap;
+     *         lets publishers skip building events with fields nobody observes
+     */
+    public boolean hasListeners(Class<?> eventClass) {
+        return taps.length > 0 || routes.get(eventClass).listeners.length > 0;
+    }
+
+    /**
+     * Deliver every queued event in publish order, including events published
+     * while doing so, and start a new coalescing period. Called by Island at
+     * the end of every tick.
+     */
+    public void flush() {
+        if (flushing) return;
+        flushing = true;
+        try {
+            while (size > 0) {
+                Object event = queue[head];
+                queue[head] = null;
+                head = (head + 1) & (queue.length - 1);
+                size--;
+                deliver(routes.get(event.getClass()), event);
             }
+        } finally {
+            flushing = false;
         }
+        epoch++;
+    }
+
+    /**
+     * Remove all registered listeners, taps and coalescing rules, drop queued
+     * events and return to immediate delivery.
+     */
+    public void clear() {
+        subscriptions.clear();
+        taps = consumers(0);
+        limits.clear();
+        routes = newCache();
+        Arrays.fill(queue, null);
+        head = size = 0;
+        deferred = false;
+    }
+
+    private boolean admit(Route route) {
+        if (route.epoch != epoch) {
+            route.epoch = epoch;
+            route.count = 0;
+        }
+        if (route.count >= route.limit) return false;
+        route.count++;
+        return true;
+    }
+
+    private static void deliver(Route route, Object event) {
+        for (Consumer<Object> listener : route.listeners) {
+            listener.accept(event);
+        }
+    }
+
+    private void enqueue(Object event) {
+        if (size == queue.length) {
+            Object[] larger = new Object[size * 2];
+            for (int i = 0; i < size; i++) {
+                larger[i] = queue[(head + i) & (queue.length - 1)];
+            }
+            queue = larger;
+            head = 0;
+        }
+        queue[(head + size) & (queue.length - 1)] = event;
+        size++;
+    }
+
+    /**
+     * @return a new array of listeners; generic arrays can only be made unchecked
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<T>[] consumers(int length) {
+        return (Consumer<T>[]) new Consumer<?>[length];
+    }
+
+    private ClassValue<Route> newCache() {
+        return new ClassValue<>() {
+            @Override
+            protected Route computeValue(Class<?> eventClass) {
+                List<Consumer<?>> matching = new ArrayList<>();
+                for (Subscription subscription : subscriptions) {
+                    if (subscription.eventType().isAssignableFrom(eventClass)) {
+                        matching.add(subscription.listener());
+                    }
+                }
+                int limit = Integer.MAX_VALUE;
+                for (Limit rule : limits) {
+                    if (rule.eventType().isAssignableFrom(eventClass)) {
+                        limit = Math.min(limit, rule.maxPerFlush());
+                    }
+                }
+                return new Route(matching.toArray(consumers(0)), limit);
+            }
+        };
+    }
+
+    /**
+     * Subscribe on the process-wide bus.
+     * @see #register(Class, Consumer)
+     */
+    public static <T> void subscribe(Class<T> eventType, Consumer<T> listener) {
+        GLOBAL.register(eventType, listener);
+    }
+
+    /**
+     * Unsubscribe from the process-wide bus.
+     * @see #unregister(Class, Consumer)
+     */
+    public static <T> void unsubscribe(Class<T> eventType, Consumer<T> listener) {
+        GLOBAL.unregister(eventType, listener);
+    }
+
+    /**
+     * Publish on the process-wide bus.
+     * @see #dispatch(Object)
+     */
+    public static <T> void publish(T event) {
+        GLOBAL.dispatch(event);
     }
 
     /**
-     * Clear all registered listeners.
+     * Clear all listeners on the process-wide bus.
      * Primarily for testing to ensure clean state between tests.
      */
     public static void reset() {
-        INSTANCE.listeners.clear();
+        GLOBAL.clear();
     }
 }
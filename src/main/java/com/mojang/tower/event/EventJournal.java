@@ -0,0 +1,286 @@
+package com.mojang.tower.event;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Appends every event it receives, stamped with the current tick, to a
+ * compact binary journal on disk for post-mortem analysis.
+ *
+ * Add it to a bus as a tap, {@code bus.tap(journal)}, so it records every
+ * published event, including those that coalescing drops.
+ * Events of classes the journal does not know are skipped.
+ *
+ * The journal is a directory of fixed-size segments, each written through
+ * a memory-mapped buffer, so appending a record is a handful of byte
+ * stores with no system call or allocation. A new segment is started when
+ * the current one is full. Segment files are numbered; a journal opened on
+ * a directory that already has segments continues after them, and its
+ * ticks start over.
+ *
+ * Segment layout (little-endian): magic, version, then records until a zero
+ * byte. A record is a varint type id, the zigzag varint tick change since
+ * the previous record of the segment (the first is relative to 0), and the
+ * event's fields as zigzag varints. Positions are stored in 1/256 units.
+ *
+ * Only one thread may append at a time.
+ */
+public final class EventJournal implements Consumer<Object>, AutoCloseable {
+    public static final int MAGIC = 0x4A525754; // "TWRJ"
+    public static final int VERSION = 1;
+    public static final int DEFAULT_SEGMENT_SIZE = 8 << 20;
+
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int HEADER_SIZE = 6;
+    private static final int MAX_RECORD_SIZE = 32;
+    private static final double POSITION_SCALE = 256.0;
+
+    /**
+     * Receives journal records in the order they were written.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void event(int tick, Object event);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final IntSupplier tick;
+    private MappedByteBuffer segment;
+    private int nextSegment;
+    private int lastTick;
+    private long records;
+
+    /**
+     * @param directory where segments are written; created if missing
+     * @param tick current tick, read for every record
+     */
+    public EventJournal(Path directory, IntSupplier tick) throws IOException {
+        this(directory, tick, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public EventJournal(Path directory, IntSupplier tick, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + MAX_RECORD_SIZE + 1) throw new IllegalArgumentException("Segment too small");
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.tick = tick;
+        Files.createDirectories(directory);
+        List<Path> existing = segments(directory);
+        nextSegment = existing.isEmpty() ? 0 : segmentNumber(existing.get(existing.size() - 1)) + 1;
+        roll();
+    }
+
+    @Override
+    public void accept(Object event) {
+        append(event);
+    }
+
+    /**
+     * @return false if the event's class is not journaled or the journal is closed
+     */
+    public boolean append(Object event) {
+        int type = typeOf(event);
+        if (type == 0 || segment == null) return false;
+        if (segment.remaining() < MAX_RECORD_SIZE) {
+            try {
+                roll();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int now = tick.getAsInt();
+        putVarint(segment, type);
+        putVarint(segment, zigzag(now - lastTick));
+        lastTick = now;
+        switch (event) {
+            case PuffEffect(var x, var y) -> {
+                putPosition(segment, x);
+                putPosition(segment, y);
+            }
+            case InfoPuffEffect(var x, var y, var image) -> {
+                putPosition(segment, x);
+                putPosition(segment, y);
+                putVarint(segment, zigzag(image));
+            }
+            default -> {
+            }
+        }
+        records++;
+        return true;
+    }
+
+    /**
+     * @return records appended since the journal was opened
+     */
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Flush the mapped segment to disk. Unused space at its end stays
+     * zero, which readers take as the end of the segment.
+     */
+    @Override
+    public void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    /**
+     * Read every record of the journal in a directory, segment by segment.
+     *
+     * @return number of records read
+     * @throws IOException if a segment cannot be read or is not a journal
+     */
+    public static long read(Path directory, Visitor visitor) throws IOException {
+        long count = 0;
+        for (Path file : segments(directory)) {
+            count += readSegment(file, visitor);
+        }
+        return count;
+    }
+
+    private static long readSegment(Path file, Visitor visitor) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC) throw new IOException("Not an event journal: " + file);
+        int version = in.getShort();
+        if (version != VERSION) throw new IOException("Unsupported journal version " + version + ": " + file);
+
+        long count = 0;
+        int tick = 0;
+        while (in.hasRemaining()) {
+            int type = getVarint(in);
+            if (type == 0) break;
+            tick += unzigzag(getVarint(in));
+            visitor.event(tick, decode(type, in));
+            count++;
+        }
+        return count;
+    }
+
+    private void roll() throws IOException {
+        close();
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, nextSegment++, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segment.putInt(MAGIC);
+        segment.putShort((short) VERSION);
+        lastTick = 0;
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(EventJournal::isSegment).sorted().forEach(files::add);
+        }
+        return files;
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Type ids are part of the file format: never renumber, only add
+    private static int typeOf(Object event) {
+        return switch (event) {
+            case AbandonedTargetSound e -> 1;
+            case SelectSound e -> 2;
+            case PlantSound e -> 3;
+            case DestroySound e -> 4;
+            case GatherSound e -> 5;
+            case FinishBuildingSound e -> 6;
+            case SpawnSound e -> 7;
+            case SpawnWarriorSound e -> 8;
+            case DingSound e -> 9;
+            case DeathSound e -> 10;
+            case MonsterDeathSound e -> 11;
+            case WinSound e -> 12;
+            case PuffEffect e -> 13;
+            case InfoPuffEffect e -> 14;
+            default -> 0;
+        };
+    }
+
+    private static Object decode(int type, ByteBuffer in) throws IOException {
+        return switch (type) {
+            case 1 -> AbandonedTargetSound.INSTANCE;
+            case 2 -> SelectSound.INSTANCE;
+            case 3 -> PlantSound.INSTANCE;
+            case 4 -> DestroySound.INSTANCE;
+            case 5 -> GatherSound.INSTANCE;
+            case 6 -> FinishBuildingSound.INSTANCE;
+            case 7 -> SpawnSound.INSTANCE;
+            case 8 -> SpawnWarriorSound.INSTANCE;
+            case 9 -> DingSound.INSTANCE;
+            case 10 -> DeathSound.INSTANCE;
+            case 11 -> MonsterDeathSound.INSTANCE;
+            case 12 -> WinSound.INSTANCE;
+            case 13 -> new PuffEffect(getPosition(in), getPosition(in));
+            case 14 -> new InfoPuffEffect(getPosition(in), getPosition(in), unzigzag(getVarint(in)));
+            default -> throw new IOException("Unknown journal event type " + type);
+        };
+    }
+
+    private static void putPosition(ByteBuffer out, double value) {
+        putVarint(out, zigzag((int) Math.round(value * POSITION_SCALE)));
+    }
+
+    private static double getPosition(ByteBuffer in) {
+        return unzigzag(getVarint(in)) / POSITION_SCALE;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+}
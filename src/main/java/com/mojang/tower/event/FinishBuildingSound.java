@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a building finishes construction. */
-public record FinishBuildingSound() implements SoundEvent {}
+public record FinishBuildingSound() implements SoundEvent {
+    public static final FinishBuildingSound INSTANCE = new FinishBuildingSound();
+}
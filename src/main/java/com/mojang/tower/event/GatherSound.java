@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a peon deposits a gathered resource. */
-public record GatherSound() implements SoundEvent {}
+public record GatherSound() implements SoundEvent {
+    public static final GatherSound INSTANCE = new GatherSound();
+}
@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a monster dies. */
-public record MonsterDeathSound() implements SoundEvent {}
+public record MonsterDeathSound() implements SoundEvent {
+    public static final MonsterDeathSound INSTANCE = new MonsterDeathSound();
+}
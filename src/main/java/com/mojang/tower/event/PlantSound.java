@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when placing a new building or planting a tree. */
-public record PlantSound() implements SoundEvent {}
+public record PlantSound() implements SoundEvent {
+    public static final PlantSound INSTANCE = new PlantSound();
+}
@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when player selects a building type in the UI. */
-public record SelectSound() implements SoundEvent {}
+public record SelectSound() implements SoundEvent {
+    public static final SelectSound INSTANCE = new SelectSound();
+}
@@ -5,6 +5,10 @@ package com.mojang.tower.event;
  *
  * Each record represents a trigger for a specific sound effect.
  * Events are data-only - the actual Sound objects are created in the handler.
+ *
+ * None of the records carry state, so each has a shared {@code INSTANCE}.
+ * Publish that rather than a new record; publishing a sound then allocates
+ * nothing.
  */
 public sealed interface SoundEvent permits
     AbandonedTargetSound,
@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a peon spawns from a residence. */
-public record SpawnSound() implements SoundEvent {}
+public record SpawnSound() implements SoundEvent {
+    public static final SpawnSound INSTANCE = new SpawnSound();
+}
@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when a peon converts to a warrior at barracks. */
-public record SpawnWarriorSound() implements SoundEvent {}
+public record SpawnWarriorSound() implements SoundEvent {
+    public static final SpawnWarriorSound INSTANCE = new SpawnWarriorSound();
+}
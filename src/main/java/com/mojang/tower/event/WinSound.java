@@ -1,4 +1,6 @@
 package com.mojang.tower.event;
 
 /** Triggered when the player wins (tower destroyed). */
-public record WinSound() implements SoundEvent {}
+public record WinSound() implements SoundEvent {
+    public static final WinSound INSTANCE = new WinSound();
+}
@@ -0,0 +1,117 @@
+package com.mojang.tower.movement;
+
+import java.util.Arrays;
+
+import com.mojang.tower.Entity;
+
+/**
+ * Reusable buffer of movement intents resolved in one pass by
+ * {@link MovementSystem#moveAll(MovementBatch)}.
+ *
+ * Intents are stored in parallel primitive arrays instead of one
+ * MovementRequest/MovementResult pair per entity, and outcomes are written
+ * back into preallocated status and blocker arrays. The buffer grows on
+ * demand and is meant to be cleared and refilled every tick.
+ */
+public final class MovementBatch {
+    /** Entity was moved to its target position, or side-stepped around an agent. */
+    public static final int MOVED = 0;
+    /** Entity stayed in place; see {@link #blocker(int)}. */
+    public static final int BLOCKED = 1;
+
+    private Entity[] entities;
+    private double[] targetX;
+    private double[] targetY;
+    private int[] status;
+    private Entity[] blockers;
+    private long[] order;
+    private int size;
+
+    public MovementBatch(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        entities = new Entity[capacity];
+        targetX = new double[capacity];
+        targetY = new double[capacity];
+        status = new int[capacity];
+        blockers = new Entity[capacity];
+        order = new long[capacity];
+    }
+
+    /**
+     * Queue a movement intent.
+     * @return slot index used to read the outcome after resolution
+     */
+    public int add(Entity entity, double x, double y) {
+        if (size == entities.length) {
+            grow();
+        }
+        entities[size] = entity;
+        targetX[size] = x;
+        targetY[size] = y;
+        status[size] = MOVED;
+        blockers[size] = null;
+        return size++;
+    }
+
+    /**
+     * Drop all queued intents and outcomes, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(entities, 0, size, null);
+        Arrays.fill(blockers, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Entity entity(int slot) {
+        return entities[slot];
+    }
+
+    public double targetX(int slot) {
+        return targetX[slot];
+    }
+
+    public double targetY(int slot) {
+        return targetY[slot];
+    }
+
+    /**
+     * @return {@link #MOVED} or {@link #BLOCKED}
+     */
+    public int status(int slot) {
+        return status[slot];
+    }
+
+    /**
+     * @return the blocking entity, or null if the move succeeded or was
+     *         blocked by terrain/boundary
+     */
+    public Entity blocker(int slot) {
+        return blockers[slot];
+    }
+
+    void setOutcome(int slot, int outcome, Entity blocker) {
+        status[slot] = outcome;
+        blockers[slot] = blocker;
+    }
+
+    /**
+     * Scratch array for the resolution order, sized to the current capacity.
+     */
+    long[] orderKeys() {
+        return order;
+    }
+
+    private void grow() {
+        int capacity = entities.length * 2;
+        entities = Arrays.copyOf(entities, capacity);
+        targetX = Arrays.copyOf(targetX, capacity);
+        targetY = Arrays.copyOf(targetY, capacity);
+        status = Arrays.copyOf(status, capacity);
+        blockers = Arrays.copyOf(blockers, capacity);
+        order = new long[capacity];
+    }
+}
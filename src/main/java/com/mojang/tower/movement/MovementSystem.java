@@ -1,7 +1,11 @@
 package com.mojang.tower.movement;
 
+import java.util.Arrays;
+
 import com.mojang.tower.Entity;
+import com.mojang.tower.navigation.CollisionProbe;
 import com.mojang.tower.navigation.NavigationGrid;
+import com.mojang.tower.pathfinding.GridCell;
 
 /**
  * Central service for entity movement execution.
@@ -9,7 +13,28 @@ import com.mojang.tower.navigation.NavigationGrid;
  * Entities calculate their movement intent; this system executes it.
  */
 public final class MovementSystem {
+    /**
+     * Side-step angles tried, in order, when another agent obstructs a move.
+     * Positive values turn away from the agent, negative values towards it.
+     */
+    private static final double[] AVOIDANCE_ANGLES = { Math.PI / 4, Math.PI / 2, -Math.PI / 4, -Math.PI / 2 };
+    private static final double[] AVOIDANCE_SIN = new double[AVOIDANCE_ANGLES.length];
+    private static final double[] AVOIDANCE_COS = new double[AVOIDANCE_ANGLES.length];
+
+    static {
+        for (int i = 0; i < AVOIDANCE_ANGLES.length; i++) {
+            AVOIDANCE_SIN[i] = Math.sin(AVOIDANCE_ANGLES[i]);
+            AVOIDANCE_COS[i] = Math.cos(AVOIDANCE_ANGLES[i]);
+        }
+    }
+
     private NavigationGrid grid;
+    private final CollisionProbe probe = new CollisionProbe();
+    private Entity lastBlocker;
+    private boolean avoidance = true;
+    private long movedCount;
+    private long avoidedCount;
+    private long blockedCount;
 
     /**
      * Set the NavigationGrid reference for collision detection.
@@ -19,10 +44,47 @@ public final class MovementSystem {
         this.grid = grid;
     }
 
+    /**
+     * Enable or disable local agent avoidance (enabled by default).
+     *
+     * When enabled, a move obstructed by another agent (see Entity.isAgent) is
+     * deflected sideways by the same step length before it is reported as
+     * Blocked. Moves blocked by terrain or static entities are unaffected.
+     */
+    public void setAvoidance(boolean enabled) {
+        this.avoidance = enabled;
+    }
+
+    public boolean isAvoidance() {
+        return avoidance;
+    }
+
+    /**
+     * @return number of moves that reached their requested target
+     */
+    public long getMovedCount() {
+        return movedCount;
+    }
+
+    /**
+     * @return number of moves that succeeded only after an avoidance side-step
+     */
+    public long getAvoidedCount() {
+        return avoidedCount;
+    }
+
+    /**
+     * @return number of moves reported as Blocked
+     */
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+
     /**
      * Execute a movement request with collision detection.
      * If movement succeeds, updates entity position and returns Moved.
      * If blocked, position unchanged and returns Blocked with blocker reference.
+     * A move deflected by agent avoidance reports the position actually reached.
      *
      * During Island construction (before setIsland is called), movement is
      * allowed without collision checking since entities are placed at
@@ -36,21 +98,119 @@ public final class MovementSystem {
         double targetX = request.targetX();
         double targetY = request.targetY();
 
+        if (tryMove(entity, targetX, targetY)) {
+            return new MovementResult.Moved(entity.x, entity.y);
+        }
+        return new MovementResult.Blocked(lastBlocker);
+    }
+
+    /**
+     * Resolve every intent in the batch in a single pass.
+     *
+     * Intents are processed in spatial order (row-major over the 4-unit
+     * pathfinding grid, by the entity's current position) with insertion
+     * order breaking ties, so the result is deterministic for a given batch.
+     * Each move sees the positions produced by the moves resolved before it.
+     * Outcomes are written to the batch's status and blocker arrays; no
+     * objects are allocated. An entity that died after queueing its move
+     * stays where it is and is reported BLOCKED with no blocker.
+     *
+     * @param batch queued intents; outcomes are written back into it
+     */
+    public void moveAll(MovementBatch batch) {
+        int size = batch.size();
+        long[] keys = batch.orderKeys();
+        for (int i = 0; i < size; i++) {
+            Entity entity = batch.entity(i);
+            keys[i] = ((long) cellIndex(entity.x, entity.y) << 32) | i;
+        }
+        Arrays.sort(keys, 0, size);
+
+        for (int i = 0; i < size; i++) {
+            int slot = (int) keys[i];
+            if (!batch.entity(slot).isAlive()) {
+                batch.setOutcome(slot, MovementBatch.BLOCKED, null);
+            } else if (tryMove(batch.entity(slot), batch.targetX(slot), batch.targetY(slot))) {
+                batch.setOutcome(slot, MovementBatch.MOVED, null);
+            } else {
+                batch.setOutcome(slot, MovementBatch.BLOCKED, lastBlocker);
+            }
+        }
+    }
+
+    /**
+     * Shared collision check for single and batched moves.
+     * On failure the blocking entity (or null for terrain) is left in lastBlocker.
+     */
+    private boolean tryMove(Entity entity, double targetX, double targetY) {
+        lastBlocker = null;
+
         // During Island construction, grid reference not yet set.
         // Allow movement without collision check (entities placed at free positions).
         if (grid == null) {
             entity.x = targetX;
             entity.y = targetY;
-            return new MovementResult.Moved(targetX, targetY);
+            return true;
         }
 
-        if (grid.isFree(targetX, targetY, entity.r, entity)) {
+        // One scan yields both the free check and the blocker for a failed move
+        grid.probe(targetX, targetY, entity.r, entity, probe);
+        if (probe.isFree()) {
             entity.x = targetX;
             entity.y = targetY;
-            return new MovementResult.Moved(targetX, targetY);
-        } else {
-            Entity blocker = grid.getEntityAt(targetX, targetY, entity.r, null, entity);
-            return new MovementResult.Blocked(blocker);
+            movedCount++;
+            grid.entityMoved(entity);
+            return true;
+        }
+        lastBlocker = probe.blocker();
+
+        if (avoidance && entity.isAgent() && lastBlocker != null && lastBlocker.isAgent() && sideStep(entity, targetX, targetY, lastBlocker)) {
+            lastBlocker = null;
+            avoidedCount++;
+            return true;
+        }
+        blockedCount++;
+        return false;
+    }
+
+    /**
+     * Try to walk around an agent standing in the way.
+     *
+     * The requested step is rotated by each of the avoidance angles, turning
+     * away from the side the agent is on first, and the first free position
+     * is taken. Step length is unchanged, so avoidance never speeds an agent up.
+     *
+     * @return true if the entity was moved to a deflected position
+     */
+    private boolean sideStep(Entity entity, double targetX, double targetY, Entity agent) {
+        double dx = targetX - entity.x;
+        double dy = targetY - entity.y;
+
+        // Cross product sign: > 0 when the agent is to the left of the step direction
+        double cross = dx * (agent.y - entity.y) - dy * (agent.x - entity.x);
+        double away = cross > 0 ? -1 : 1;
+
+        for (int i = 0; i < AVOIDANCE_ANGLES.length; i++) {
+            double sin = AVOIDANCE_SIN[i] * away;
+            double cos = AVOIDANCE_COS[i];
+            double x = entity.x + dx * cos - dy * sin;
+            double y = entity.y + dx * sin + dy * cos;
+            if (grid.isFree(x, y, entity.r, entity)) {
+                entity.x = x;
+                entity.y = y;
+                grid.entityMoved(entity);
+                return true;
+            }
         }
+        return false;
+    }
+
+    /**
+     * Row-major index of the pathfinding grid cell containing a world position.
+     */
+    private static int cellIndex(double x, double y) {
+        int gx = Math.clamp((int) ((x + 192) / 4), 0, GridCell.GRID_SIZE - 1);
+        int gy = Math.clamp((int) ((y + 192) / 4), 0, GridCell.GRID_SIZE - 1);
+        return gy * GridCell.GRID_SIZE + gx;
     }
 }
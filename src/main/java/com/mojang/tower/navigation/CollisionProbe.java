@@ -0,0 +1,44 @@
+package com.mojang.tower.navigation;
+
+import com.mojang.tower.Entity;
+
+/**
+ * Reusable result of {@link NavigationGrid#probe}.
+ *
+ * Holds everything a movement check needs from one world scan: whether the
+ * position is on walkable ground, and the closest entity colliding with it.
+ * Callers keep one instance and pass it to every probe to avoid allocation.
+ */
+public final class CollisionProbe {
+    private boolean walkable;
+    private Entity blocker;
+
+    /**
+     * Store the outcome of a probe. Called by NavigationGrid implementations.
+     */
+    public void set(boolean walkable, Entity blocker) {
+        this.walkable = walkable;
+        this.blocker = blocker;
+    }
+
+    /**
+     * @return true if the probed position is on valid ground
+     */
+    public boolean isWalkable() {
+        return walkable;
+    }
+
+    /**
+     * @return closest colliding entity, or null if no entity collides
+     */
+    public Entity blocker() {
+        return blocker;
+    }
+
+    /**
+     * @return true if the position is walkable and no entity collides
+     */
+    public boolean isFree() {
+        return walkable && blocker == null;
+    }
+}
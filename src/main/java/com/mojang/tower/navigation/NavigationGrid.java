@@ -26,4 +26,22 @@ public interface NavigationGrid {
      * @return closest matching entity, or null if none found
      */
     Entity getEntityAt(double x, double y, double radius, TargetFilter filter, Entity exclude);
+
+    /**
+     * Combined walkability and collision query for movement.
+     * Reports whether the position is on ground and the closest entity
+     * colliding with the circle, using a single scan of the world.
+     * @param exclude entity to exclude from the collision check (null to check all)
+     * @param out receives the result; reused across calls
+     */
+    default void probe(double x, double y, double radius, Entity exclude, CollisionProbe out) {
+        out.set(isOnGround(x, y), getEntityAt(x, y, radius, null, exclude));
+    }
+
+    /**
+     * Notification that the movement system changed an entity's position.
+     * Lets the grid keep its spatial indexes current.
+     */
+    default void entityMoved(Entity entity) {
+    }
 }
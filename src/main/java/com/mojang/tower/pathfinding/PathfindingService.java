@@ -11,6 +11,7 @@ import com.mojang.tower.navigation.NavigationGrid;
 public final class PathfindingService {
     private final AStarPathfinder pathfinder;
     private int maxNodes = AStarPathfinder.DEFAULT_MAX_NODES;
+    private long requestCount;
 
     public PathfindingService(NavigationGrid grid) {
         this.pathfinder = new AStarPathfinder(grid);
@@ -32,6 +33,15 @@ public final class PathfindingService {
         return maxNodes;
     }
 
+    /**
+     * Get the number of findPath calls made so far.
+     * Used to measure repath pressure per tick.
+     * @return total path requests
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
     /**
      * Find a path from world coordinates to target world coordinates.
      * Converts between continuous world space and discrete grid cells.
@@ -39,6 +49,7 @@ public final class PathfindingService {
      * @return PathResult.Found with waypoints (in grid cells), or PathResult.NotFound
      */
     public PathResult findPath(double fromX, double fromY, double toX, double toY) {
+        requestCount++;
         GridCell start = worldToGrid(fromX, fromY);
         GridCell goal = worldToGrid(toX, toY);
         return pathfinder.findPath(start, goal, maxNodes);
@@ -0,0 +1,211 @@
+package com.mojang.tower.spatial;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.mojang.tower.Entity;
+import com.mojang.tower.TargetFilter;
+
+/**
+ * Uniform-grid spatial index over a subset of entities.
+ *
+ * The world (-192 to +192 on both axes) is split into 16-unit cells, each
+ * holding the indexed entities whose position falls inside it. Membership
+ * changes and position updates are O(1); nearest-neighbour queries visit
+ * cells in rings around the query point and stop as soon as no closer
+ * entity can exist.
+ *
+ * Entities are tracked by {@link Entity#getId()}, so they must have been
+ * added to an Island before being indexed. Queries are deterministic: equal
+ * distances are broken by the lower entity id.
+ *
+ * @param <T> the indexed entity type
+ */
+public final class SpatialIndex<T extends Entity> {
+    private static final double WORLD_MIN = -192;
+    private static final double CELL_SIZE = 16;
+    private static final int GRID = 24;
+
+    private final Entity[][] cells = new Entity[GRID * GRID][];
+    private final int[] counts = new int[GRID * GRID];
+    private int[] cellOf = new int[256];
+    private int[] slotOf = new int[256];
+    private int size;
+
+    public SpatialIndex() {
+        Arrays.fill(cellOf, -1);
+    }
+
+    /**
+     * @return number of indexed entities
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(T entity) {
+        int id = entity.getId();
+        return id >= 0 && id < cellOf.length && cellOf[id] >= 0;
+    }
+
+    /**
+     * Add an entity at its current position. No-op if already indexed.
+     */
+    public void add(T entity) {
+        int id = entity.getId();
+        ensureCapacity(id);
+        if (cellOf[id] >= 0) return;
+        insert(entity, cellIndex(entity.x, entity.y));
+        size++;
+    }
+
+    /**
+     * Remove an entity. No-op if not indexed.
+     */
+    public void remove(T entity) {
+        int id = entity.getId();
+        if (id < 0 || id >= cellOf.length || cellOf[id] < 0) return;
+        unlink(id);
+        size--;
+    }
+
+    /**
+     * Re-file an indexed entity after it moved. No-op if not indexed.
+     */
+    public void update(T entity) {
+        int id = entity.getId();
+        if (id < 0 || id >= cellOf.length || cellOf[id] < 0) return;
+        int cell = cellIndex(entity.x, entity.y);
+        if (cell == cellOf[id]) return;
+        unlink(id);
+        insert(entity, cell);
+    }
+
+    /**
+     * Find the closest indexed entity within {@code radius} of a point.
+     *
+     * @param filter additional acceptance test (null accepts all)
+     * @return closest accepted entity, or null if none is in range
+     */
+    @SuppressWarnings("unchecked")
+    public T nearest(double x, double y, double radius, TargetFilter filter) {
+        if (size == 0) return null;
+
+        int cx = clampCell((x - WORLD_MIN) / CELL_SIZE);
+        int cy = clampCell((y - WORLD_MIN) / CELL_SIZE);
+        int maxRing = (int) Math.ceil(radius / CELL_SIZE);
+
+        Entity best = null;
+        double bestDist = radius * radius;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Entities in this ring are at least (ring - 1) cells away from the query point
+            if (best != null && ring > 1) {
+                double minDist = (ring - 1) * CELL_SIZE;
+                if (minDist * minDist > bestDist) break;
+            }
+
+            for (int gy = cy - ring; gy <= cy + ring; gy++) {
+                if (gy < 0 || gy >= GRID) continue;
+                boolean edgeRow = gy == cy - ring || gy == cy + ring;
+                int step = edgeRow ? 1 : ring * 2;
+                for (int gx = cx - ring; gx <= cx + ring; gx += step) {
+                    if (gx < 0 || gx >= GRID) continue;
+                    int cell = gy * GRID + gx;
+                    Entity[] bucket = cells[cell];
+                    for (int i = 0; i < counts[cell]; i++) {
+                        Entity e = bucket[i];
+                        double xd = e.x - x;
+                        double yd = e.y - y;
+                        double dist = xd * xd + yd * yd;
+                        if (dist > bestDist) continue;
+                        if (dist == bestDist && best != null && e.getId() > best.getId()) continue;
+                        if (filter != null && !filter.accepts(e)) continue;
+                        best = e;
+                        bestDist = dist;
+                    }
+                }
+            }
+        }
+        return (T) best;
+    }
+
+    /**
+     * Append every indexed entity within {@code radius} of a point to
+     * {@code out}, in index order (by cell, then by insertion into the cell).
+     * The list is not cleared first.
+     */
+    @SuppressWarnings("unchecked")
+    public void collect(double x, double y, double radius, List<? super T> out) {
+        if (size == 0) return;
+
+        int x0 = clampCell((x - radius - WORLD_MIN) / CELL_SIZE);
+        int x1 = clampCell((x + radius - WORLD_MIN) / CELL_SIZE);
+        int y0 = clampCell((y - radius - WORLD_MIN) / CELL_SIZE);
+        int y1 = clampCell((y + radius - WORLD_MIN) / CELL_SIZE);
+        double maxDist = radius * radius;
+
+        for (int gy = y0; gy <= y1; gy++) {
+            for (int gx = x0; gx <= x1; gx++) {
+                int cell = gy * GRID + gx;
+                Entity[] bucket = cells[cell];
+                for (int i = 0; i < counts[cell]; i++) {
+                    Entity e = bucket[i];
+                    double xd = e.x - x;
+                    double yd = e.y - y;
+                    if (xd * xd + yd * yd <= maxDist) out.add((T) e);
+                }
+            }
+        }
+    }
+
+    private void insert(Entity entity, int cell) {
+        Entity[] bucket = cells[cell];
+        if (bucket == null) {
+            bucket = cells[cell] = new Entity[4];
+        } else if (counts[cell] == bucket.length) {
+            bucket = cells[cell] = Arrays.copyOf(bucket, bucket.length * 2);
+        }
+        int id = entity.getId();
+        bucket[counts[cell]] = entity;
+        cellOf[id] = cell;
+        slotOf[id] = counts[cell]++;
+    }
+
+    private void unlink(int id) {
+        int cell = cellOf[id];
+        int slot = slotOf[id];
+        Entity[] bucket = cells[cell];
+        int last = --counts[cell];
+
+        // Swap the last entity of the bucket into the vacated slot
+        Entity moved = bucket[last];
+        bucket[slot] = moved;
+        slotOf[moved.getId()] = slot;
+        bucket[last] = null;
+        cellOf[id] = -1;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Entity has no id; add it to an Island first");
+        }
+        if (id >= cellOf.length) {
+            int capacity = Math.max(cellOf.length * 2, id + 1);
+            int oldLength = cellOf.length;
+            cellOf = Arrays.copyOf(cellOf, capacity);
+            slotOf = Arrays.copyOf(slotOf, capacity);
+            Arrays.fill(cellOf, oldLength, capacity, -1);
+        }
+    }
+
+    private static int cellIndex(double x, double y) {
+        int gx = clampCell((x - WORLD_MIN) / CELL_SIZE);
+        int gy = clampCell((y - WORLD_MIN) / CELL_SIZE);
+        return gy * GRID + gx;
+    }
+
+    private static int clampCell(double v) {
+        return Math.clamp((int) Math.floor(v), 0, GRID - 1);
+    }
+}
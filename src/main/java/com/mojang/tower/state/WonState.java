@@ -14,6 +14,17 @@ public final class WonState implements GameState {
 
     private int wonTime = 0;
 
+    public WonState() {
+    }
+
+    /**
+     * Resume a won state, e.g. from a snapshot.
+     * @param wonTime ticks already spent in this state
+     */
+    public WonState(int wonTime) {
+        this.wonTime = wonTime;
+    }
+
     @Override
     public GameState tick() {
         wonTime++;
@@ -0,0 +1,61 @@
+package com.mojang.tower.timer;
+
+/**
+ * A reusable one-shot timer owned by a {@link TimerWheel}.
+ *
+ * The action is fixed at construction; the deadline is given each time the
+ * timer is scheduled. Rescheduling an already pending timer moves it, so
+ * owners can keep a single Timer per deadline they track.
+ */
+public final class Timer {
+    static final int IDLE = 0;
+    static final int PENDING = 1;
+    static final int FIRING = 2;
+
+    final Runnable action;
+    int deadline;
+    long sequence;
+    int state = IDLE;
+
+    // Intrusive bucket list links, managed by TimerWheel
+    Timer prev, next;
+    Timer[] bucket;
+    int slot;
+    TimerWheel wheel;
+
+    public Timer(Runnable action) {
+        this.action = action;
+    }
+
+    /**
+     * @return true if the timer is scheduled and has not fired or been cancelled
+     */
+    public boolean isPending() {
+        return state != IDLE;
+    }
+
+    /**
+     * @return tick this timer was last scheduled for
+     */
+    public int deadline() {
+        return deadline;
+    }
+
+    /**
+     * @return position in the wheel's scheduling order; among timers with the
+     *         same deadline, lower fires first
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Cancel the timer if pending. Safe to call at any time, including from
+     * another timer's action in the same tick.
+     */
+    public void cancel() {
+        if (wheel != null) {
+            wheel.cancel(this);
+        }
+    }
+}
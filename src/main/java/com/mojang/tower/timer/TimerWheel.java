@@ -0,0 +1,201 @@
+package com.mojang.tower.timer;
+
+/**
+ * Hierarchical timing wheel driven by the simulation tick.
+ *
+ * Four levels of 64 slots cover deadlines up to 2^24 ticks ahead; anything
+ * further waits in an overflow list. Scheduling and cancelling are O(1), and
+ * advancing one tick only touches the timers that expire on it, plus an
+ * amortised cascade of higher-level slots every 64 ticks.
+ *
+ * Timers expiring on the same tick fire in the order they were scheduled,
+ * which keeps the simulation deterministic. A timer scheduled for the current
+ * tick or earlier fires on the next {@link #advance(int)}.
+ */
+public final class TimerWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final Timer[][] levels = new Timer[LEVELS][SLOTS];
+    private final Timer[] overflow = new Timer[1];
+    private Timer[] firing = new Timer[16];
+    private int now;
+    private long nextSequence;
+    private int pending;
+
+    /**
+     * Create a wheel whose current tick is {@code startTick}.
+     */
+    public TimerWheel(int startTick) {
+        this.now = startTick;
+    }
+
+    public TimerWheel() {
+        this(0);
+    }
+
+    /**
+     * @return the last tick the wheel was advanced to
+     */
+    public int now() {
+        return now;
+    }
+
+    /**
+     * @return number of pending timers
+     */
+    public int size() {
+        return pending;
+    }
+
+    /**
+     * Schedule (or reschedule) a timer to fire on the given tick.
+     */
+    public void schedule(Timer timer, int deadline) {
+        if (timer.state != Timer.IDLE) {
+            cancel(timer);
+        }
+        timer.wheel = this;
+        timer.deadline = Math.max(deadline, now + 1);
+        timer.sequence = nextSequence++;
+        timer.state = Timer.PENDING;
+        insert(timer);
+        pending++;
+    }
+
+    /**
+     * Cancel a pending timer. No-op if it is not pending.
+     */
+    public void cancel(Timer timer) {
+        if (timer.state == Timer.PENDING) {
+            unlink(timer);
+        }
+        if (timer.state != Timer.IDLE) {
+            timer.state = Timer.IDLE;
+            pending--;
+        }
+    }
+
+    /**
+     * Advance the wheel to {@code tick}, firing every timer due on the way.
+     * Actions may schedule or cancel timers, including their own.
+     */
+    public void advance(int tick) {
+        while (now < tick) {
+            now++;
+            cascade();
+
+            Timer[] bucket = levels[0];
+            int slot = now & SLOT_MASK;
+            if (bucket[slot] != null) {
+                fire(bucket, slot);
+            }
+        }
+    }
+
+    /**
+     * Move timers from every higher-level slot that comes due at this tick
+     * down the hierarchy, highest level first.
+     */
+    private void cascade() {
+        if ((now & SLOT_MASK) != 0) return;
+
+        int top = 1;
+        while (top < LEVELS - 1 && ((now >>> (SLOT_BITS * top)) & SLOT_MASK) == 0) {
+            top++;
+        }
+        if (top == LEVELS - 1 && ((now >>> (SLOT_BITS * top)) & SLOT_MASK) == 0) {
+            reinsert(overflow, 0);
+        }
+        for (int level = top; level >= 1; level--) {
+            reinsert(levels[level], (now >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+    }
+
+    private void reinsert(Timer[] bucket, int slot) {
+        Timer timer = bucket[slot];
+        bucket[slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void fire(Timer[] bucket, int slot) {
+        // Detach every timer before running any action, so actions can freely
+        // schedule and cancel, including into a slot another batch member is
+        // still linked from
+        int count = 0;
+        Timer timer = bucket[slot];
+        bucket[slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            if (count == firing.length) {
+                Timer[] larger = new Timer[count * 2];
+                System.arraycopy(firing, 0, larger, 0, count);
+                firing = larger;
+            }
+            firing[count++] = timer;
+            timer.prev = timer.next = null;
+            timer.bucket = null;
+            timer.state = Timer.FIRING;
+            timer = next;
+        }
+
+        // Insertion sort by schedule order; buckets are small
+        for (int i = 1; i < count; i++) {
+            timer = firing[i];
+            int j = i - 1;
+            while (j >= 0 && firing[j].sequence > timer.sequence) {
+                firing[j + 1] = firing[j];
+                j--;
+            }
+            firing[j + 1] = timer;
+        }
+
+        for (int i = 0; i < count; i++) {
+            timer = firing[i];
+            firing[i] = null;
+            // Skip timers cancelled or rescheduled by an earlier action
+            if (timer.state != Timer.FIRING) continue;
+            timer.state = Timer.IDLE;
+            pending--;
+            timer.action.run();
+        }
+    }
+
+    private void insert(Timer timer) {
+        long delta = (long) timer.deadline - now;
+        Timer[] bucket = overflow;
+        int slot = 0;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                bucket = levels[level];
+                slot = (timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+                break;
+            }
+        }
+
+        Timer head = bucket[slot];
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) head.prev = timer;
+        bucket[slot] = timer;
+        timer.bucket = bucket;
+        timer.slot = slot;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            timer.bucket[timer.slot] = timer.next;
+        }
+        if (timer.next != null) timer.next.prev = timer.prev;
+        timer.prev = timer.next = null;
+        timer.bucket = null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.mojang.tower;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for running many seeded headless games at once.
+ */
+class BatchRunnerTest {
+
+    private static final int TICKS = 300;
+    // Long enough for the scripted player to win seeds 6 and 7
+    private static final int PLAYED_TICKS = 60_000;
+    private static final PrintStream NO_OUTPUT = new PrintStream(PrintStream.nullOutputStream());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesOneRowPerSeedInSeedOrder() throws Exception {
+        List<String> rows = Files.readAllLines(batch(3, 5, 2, directory.resolve("results.csv"), NO_OUTPUT));
+
+        assertEquals(HeadlessRunner.Result.CSV_HEADER, rows.get(0));
+        assertEquals(6, rows.size());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rows.get(i + 1).startsWith((3 + i) + "," + TICKS + ","), rows.get(i + 1));
+        }
+    }
+
+    @Test
+    void eachSeedPlaysOutLikeASingleRun() throws Exception {
+        List<String> parallel = outcomes(batch(3, 4, 4, directory.resolve("parallel.csv"), NO_OUTPUT));
+        List<String> serial = outcomes(batch(3, 4, 1, directory.resolve("serial.csv"), NO_OUTPUT));
+        assertEquals(serial, parallel);
+
+        HeadlessRunner.Result single = new HeadlessRunner(5).run(TICKS, 0, 0, NO_OUTPUT);
+        assertEquals(outcome(single.toCsv()), parallel.get(2));
+    }
+
+    @Test
+    void printsSummary() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Path csv = directory.resolve("results.csv");
+        batch(1, 3, 2, csv, new PrintStream(bytes, true));
+
+        List<String> lines = bytes.toString().lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("3 runs in "), lines.get(0));
+        assertTrue(lines.get(0).contains("0 won, results in " + csv), lines.get(0));
+        assertTrue(lines.get(1).startsWith("2 workers on "), lines.get(1));
+        assertTrue(lines.get(2).startsWith("simulation: "), lines.get(2));
+    }
+
+    @Test
+    void playedSeedsWin() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Path csv = directory.resolve("played.csv");
+        BatchRunner runner = new BatchRunner(2, PLAYED_TICKS);
+        runner.setPlaying(true);
+        runner.run(6, 2, csv, new PrintStream(bytes, true));
+
+        List<String> rows = Files.readAllLines(csv);
+        for (String row : rows.subList(1, rows.size())) {
+            String[] columns = row.split(",");
+            assertEquals("true", columns[2], row);
+            assertTrue(Integer.parseInt(columns[3]) > 0, row);
+        }
+        assertTrue(bytes.toString().contains("2 won, results in "), bytes.toString());
+    }
+
+    @Test
+    void scalingComparesEachWorkerCountWithOneWorker() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BatchRunner.scaling(1, 2, TICKS, false, new int[] { 2, 1 }, new PrintStream(bytes, true));
+
+        List<String> lines = bytes.toString().lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("1 workers: "), lines.get(0));
+        assertTrue(lines.get(0).endsWith(" 1.00x over 1 worker"), lines.get(0));
+        assertTrue(lines.get(1).startsWith("2 workers: "), lines.get(1));
+    }
+
+    private static Path batch(long firstSeed, int runs, int workers, Path csv, PrintStream out) throws Exception {
+        new BatchRunner(workers, TICKS).run(firstSeed, runs, csv, out);
+        return csv;
+    }
+
+    /**
+     * @return the rows without the header and the timing column
+     */
+    private static List<String> outcomes(Path csv) throws Exception {
+        List<String> outcomes = new ArrayList<>();
+        List<String> rows = Files.readAllLines(csv);
+        for (String row : rows.subList(1, rows.size())) {
+            outcomes.add(outcome(row));
+        }
+        return outcomes;
+    }
+
+    private static String outcome(String row) {
+        return row.substring(0, row.lastIndexOf(','));
+    }
+}
@@ -0,0 +1,83 @@
+package com.mojang.tower;
+
+import com.mojang.tower.event.DingSound;
+import com.mojang.tower.event.EffectEvent;
+import com.mojang.tower.event.InfoPuffEffect;
+import com.mojang.tower.event.PuffEffect;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that effect events, which carry a position and so are built per
+ * puff, are only built when something listens for them.
+ */
+class EffectEventTest {
+
+    @Test
+    void effectsWithoutListenersAllocateNothing() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        WorldContext world = new WorldContext(1);
+        int[] dings = new int[1];
+        world.events().register(DingSound.class, e -> dings[0]++);
+        Island island = new Island(world, new Bitmaps(), Bitmaps.loadIsland(), () -> {});
+        House house = first(island, House.class);
+        List<Peon> peons = all(island, Peon.class);
+
+        // Warm up both publishers; each fresh peon levels up nine times in 1000 xp
+        for (int i = 0; i < 4; i++) {
+            puffAndLevel(house, peons.get(i));
+        }
+        assertEquals(36, dings[0]);
+
+        // As in EventBusTest, take the best of several rounds to skip one-off JIT allocations
+        long threadId = Thread.currentThread().threadId();
+        long allocated = Long.MAX_VALUE;
+        for (int i = 4; i < peons.size() && allocated > 0; i++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            puffAndLevel(house, peons.get(i));
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        assertEquals(0, allocated, "Bytes allocated over 1000 puffs and 9 level-ups");
+        assertTrue(dings[0] >= 45, "Measured rounds level up");
+    }
+
+    @Test
+    void effectsReachRegisteredListeners() throws Exception {
+        WorldContext world = new WorldContext(1);
+        List<EffectEvent> effects = new ArrayList<>();
+        world.events().register(EffectEvent.class, effects::add);
+        Island island = new Island(world, new Bitmaps(), Bitmaps.loadIsland(), () -> {});
+        House house = first(island, House.class);
+        Peon peon = first(island, Peon.class);
+
+        house.puff();
+        peon.addXp();
+
+        assertEquals(List.of(new PuffEffect(house.x, house.y), new InfoPuffEffect(peon.x, peon.y, 0)), effects);
+    }
+
+    private static void puffAndLevel(House house, Peon peon) {
+        for (int i = 0; i < 1000; i++) {
+            house.puff();
+            peon.addXp();
+        }
+    }
+
+    private static <T extends Entity> T first(Island island, Class<T> type) {
+        return all(island, type).get(0);
+    }
+
+    private static <T extends Entity> List<T> all(Island island, Class<T> type) {
+        List<T> found = new ArrayList<>();
+        for (Entity e : island.entities) {
+            if (type.isInstance(e)) found.add(type.cast(e));
+        }
+        return found;
+    }
+}
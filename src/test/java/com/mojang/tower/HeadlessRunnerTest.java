@@ -0,0 +1,79 @@
+package com.mojang.tower;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sanity tests for the supported headless runner.
+ */
+class HeadlessRunnerTest {
+
+    @Test
+    void sameSeedPlaysOutTheSameWay() throws Exception {
+        assertEquals(snapshot(7, 300), snapshot(7, 300));
+    }
+
+    @Test
+    void concurrentRunsDoNotInterfere() throws Exception {
+        List<String> expected = snapshot(7, 300);
+
+        var executor = java.util.concurrent.Executors.newFixedThreadPool(3);
+        try {
+            var a = executor.submit(() -> snapshot(7, 300));
+            var b = executor.submit(() -> snapshot(8, 300));
+            var c = executor.submit(() -> snapshot(7, 300));
+            assertEquals(expected, a.get());
+            assertEquals(expected, c.get());
+            assertNotEquals(expected, b.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void printsProgressAtInterval() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HeadlessRunner.Result result = new HeadlessRunner(1).run(100, 0, 25, new PrintStream(bytes, true));
+
+        assertEquals(100, result.ticks());
+        assertFalse(result.won());
+        assertTrue(result.peakPopulation() > 0);
+        assertEquals(4, bytes.toString().lines().count(), "One progress line every 25 ticks");
+    }
+
+    @Test
+    void playedRunStartsBesideTheTowerAndBuilds() throws Exception {
+        HeadlessRunner runner = new HeadlessRunner(1);
+        runner.setPlaying(true);
+        runner.run(300, 0, 0, System.out);
+
+        Entity tower = null;
+        List<House> houses = new ArrayList<>();
+        for (Entity e : runner.getIsland().entities) {
+            if (e instanceof Tower) tower = e;
+            if (e instanceof House house) houses.add(house);
+        }
+        assertNotNull(tower);
+        House start = houses.get(0);
+        assertEquals(HouseType.GUARDPOST, start.getType());
+        assertTrue(Math.hypot(start.x - tower.x, start.y - tower.y) < 100, "Starts beside the tower");
+        assertTrue(houses.size() > 1, "The player placed houses");
+    }
+
+    private static List<String> snapshot(long seed, int ticks) throws Exception {
+        HeadlessRunner runner = new HeadlessRunner(seed);
+        runner.run(ticks, 0, 0, System.out);
+
+        List<String> state = new ArrayList<>();
+        for (Entity e : runner.getIsland().entities) {
+            state.add(e.getClass().getSimpleName() + " " + e.x + " " + e.y);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mojang.tower;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the reduced-detail mode outside a focus region (Island.setFocus).
+ */
+class ReducedDetailTest {
+
+    private static final PrintStream NO_OUTPUT = new PrintStream(PrintStream.nullOutputStream());
+    private static final long[] SEEDS = { 1, 7, 8, 9, 10 };
+
+    @Test
+    void gathersAboutAsMuchAsFullDetail() throws Exception {
+        int full = 0;
+        int reduced = 0;
+        for (long seed : SEEDS) {
+            full += woodGathered(seed, 1);
+            reduced += woodGathered(seed, 4);
+        }
+
+        assertTrue(full > 300, "Woodcutters were busy at full detail: " + full);
+        assertEquals(1.0, (double) reduced / full, 0.25, "Wood gathered at cadence 4 vs full detail: " + reduced + " / " + full);
+    }
+
+    @Test
+    void sameSeedPlaysOutTheSameWayAtReducedDetail() throws Exception {
+        assertEquals(woodGathered(7, 4), woodGathered(7, 4));
+    }
+
+    @Test
+    void agentsReenteringTheFocusReturnToFullDetail() throws Exception {
+        int cadence = 4;
+        Island island = setUp(7, 1000, 1000, 1, 1);
+        // The guardpost the first peons gather around
+        island.setFocus(40, -120, 30, cadence);
+
+        Map<Entity, Integer> lastStep = new HashMap<>();
+        int reentries = 0;
+        for (int t = 0; t < 3000; t++) {
+            Map<Entity, Boolean> inFocus = new HashMap<>();
+            for (Entity e : island.entities) {
+                if (e.isAgent()) inFocus.put(e, island.isInFocus(e));
+            }
+            island.tick();
+            for (Map.Entry<Entity, Boolean> entry : inFocus.entrySet()) {
+                Entity e = entry.getKey();
+                if (!e.isAlive()) continue;
+                assertEquals(entry.getValue() ? 1 : cadence, e.lodStep, "Detail of " + e.getClass().getSimpleName() + " " + e.getId() + " at tick " + t);
+                if (entry.getValue() && lastStep.getOrDefault(e, 1) == cadence) reentries++;
+                lastStep.put(e, e.lodStep);
+            }
+        }
+
+        assertTrue(reentries > 0, "Some agent left the focus and came back");
+    }
+
+    /**
+     * Play a seeded game without monsters, with woodcutters placed at the
+     * start, and count the wood delivered once the houses are running.
+     */
+    private static int woodGathered(long seed, int cadence) throws Exception {
+        Island island = setUp(seed, 1000, 1000, 1, cadence);
+        for (int t = 0; t < 3000; t++) {
+            island.tick();
+        }
+        int start = island.resources.wood;
+        for (int t = 0; t < 6000; t++) {
+            island.tick();
+        }
+        return island.resources.wood - start;
+    }
+
+    /**
+     * A fresh island with the tower and its monsters gone, so nothing kills
+     * the peons, and two woodcutters and two masons placed near the middle.
+     */
+    private static Island setUp(long seed, double focusX, double focusY, double focusRadius, int cadence) throws Exception {
+        HeadlessRunner runner = new HeadlessRunner(seed);
+        runner.setFocus(focusX, focusY, focusRadius, cadence);
+        runner.run(0, 0, 0, NO_OUTPUT);
+        Island island = runner.getIsland();
+        for (Entity e : island.entities) {
+            if (e instanceof Tower || e instanceof Monster) e.alive = false;
+        }
+
+        HouseType[] types = { HouseType.WOODCUTTER, HouseType.MASON, HouseType.WOODCUTTER, HouseType.MASON };
+        int placed = 0;
+        for (int i = 0; i < 400 && placed < types.length; i++) {
+            double x = Math.sin(i * 0.7) * (40 + i % 80);
+            double y = Math.cos(i * 0.7) * (20 + i % 40);
+            if (island.canPlaceHouse(x, y, types[placed])) {
+                island.placeHouse(x, y, types[placed++]);
+            }
+        }
+        assertEquals(types.length, placed);
+        return island;
+    }
+}
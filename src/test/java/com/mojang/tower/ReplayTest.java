@@ -0,0 +1,109 @@
+package com.mojang.tower;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mojang.tower.event.EffectEvent;
+import com.mojang.tower.event.InfoPuffEffect;
+import com.mojang.tower.event.PuffEffect;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a logged session replays to exactly the state the game reached.
+ */
+class ReplayTest {
+
+    @TempDir
+    Path directory;
+
+    private Island island;
+
+    @Test
+    void replayEndsInTheSameState() throws Exception {
+        Path file = directory.resolve("session.commands");
+        Island played = play(file, 11, null);
+
+        CommandLog.Session session = CommandLog.read(file);
+        assertEquals(4000, session.endTick());
+        assertFalse(session.commands().isEmpty());
+        Island replayed = new Replay(session).run(Integer.MAX_VALUE);
+
+        assertTrue(played.entities.stream().anyMatch(e -> e instanceof House), "Some houses were placed");
+        assertEquals(state(played), state(replayed));
+    }
+
+    @Test
+    void replayStartsFromSnapshot() throws Exception {
+        HeadlessRunner runner = new HeadlessRunner(4);
+        runner.run(500, 0, 0, new PrintStream(PrintStream.nullOutputStream()));
+        ByteBuffer snapshot = Snapshot.write(runner.getIsland(), null);
+
+        Path file = directory.resolve("loaded.commands");
+        Island played = play(file, 4, snapshot);
+        Island replayed = new Replay(CommandLog.read(file)).run(Integer.MAX_VALUE);
+
+        assertEquals(state(played), state(replayed));
+    }
+
+    /**
+     * Play a session the way the game does: deferred events, effects that
+     * add entities, and clicks applied between ticks while the view turns.
+     */
+    private Island play(Path file, long seed, ByteBuffer snapshot) throws Exception {
+        WorldContext world = new WorldContext(seed);
+        world.events().register(EffectEvent.class, event -> {
+            switch (event) {
+                case PuffEffect(var x, var y) -> island.addEntity(new Puff(x, y));
+                case InfoPuffEffect(var x, var y, var img) -> island.addEntity(new InfoPuff(x, y, img));
+            }
+        });
+        world.events().setDeferred(true);
+        island = snapshot == null
+            ? new Island(world, new Bitmaps(), Bitmaps.loadIsland(), () -> {})
+            : Snapshot.read(snapshot, world, new Bitmaps(), Bitmaps.loadIsland(), () -> {}).island();
+
+        int start = island.getTickCount();
+        try (CommandLog log = new CommandLog(file, seed, snapshot, island)) {
+            for (int i = 0; i < 4000; i++) {
+                island.rot = i * 0.003;
+                if (i % 150 == 0) {
+                    issue(log, new Command.PlaceHouse(Math.sin(i) * 120, Math.cos(i) * 60, island.rot, (i / 150) % 8));
+                }
+                if (i == 3000) {
+                    island.entities.stream().filter(e -> e instanceof House).findFirst()
+                        .ifPresent(house -> issue(log, new Command.SellHouse(house.getId())));
+                }
+                island.tick();
+            }
+        }
+        assertEquals(start + 4000, island.getTickCount());
+        return island;
+    }
+
+    private void issue(CommandLog log, Command command) {
+        try {
+            log.append(command);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        command.apply(island);
+    }
+
+    private static List<String> state(Island island) {
+        List<String> state = new ArrayList<>();
+        state.add("tick " + island.getTickCount() + " pop " + island.population + "/" + island.populationCap
+            + " wood " + island.resources.wood + " rock " + island.resources.rock + " food " + island.resources.food);
+        for (Entity e : island.entities) {
+            state.add(e.getClass().getSimpleName() + " " + e.getId() + " " + e.x + " " + e.y + " " + e.isAlive());
+        }
+        return state;
+    }
+}
@@ -0,0 +1,92 @@
+package com.mojang.tower;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mojang.tower.state.WonState;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for binary snapshots: a restored island must carry on exactly
+ * like the original.
+ */
+class SnapshotTest {
+
+    private static final PrintStream NO_OUTPUT = new PrintStream(PrintStream.nullOutputStream());
+
+    @Test
+    void restoredIslandPlaysOutTheSameWay() throws Exception {
+        HeadlessRunner runner = new HeadlessRunner(7);
+        runner.run(2000, 0, 0, NO_OUTPUT);
+        Island original = runner.getIsland();
+
+        ByteBuffer snapshot = Snapshot.write(original, null);
+        Island restored = restore(snapshot).island();
+        assertEquals(state(original), state(restored));
+
+        for (int i = 0; i < 2000; i++) {
+            original.tick();
+            restored.tick();
+        }
+        assertEquals(state(original), state(restored));
+    }
+
+    @Test
+    void keepsGameState() throws Exception {
+        HeadlessRunner runner = new HeadlessRunner(3);
+        runner.run(10, 0, 0, NO_OUTPUT);
+
+        ByteBuffer snapshot = Snapshot.write(runner.getIsland(), new Snapshot.Game(new WonState(42), 1234, 5678));
+        Snapshot.Game game = restore(snapshot).game();
+
+        assertEquals(42, ((WonState) game.state()).getWonTime());
+        assertEquals(1234, game.gameTime());
+        assertEquals(5678, game.winScore());
+    }
+
+    @Test
+    void rejectsOtherData() {
+        ByteBuffer junk = ByteBuffer.wrap("not a snapshot at all".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> restore(junk));
+    }
+
+    @Test
+    void largeIslandRoundTrips() throws Exception {
+        HeadlessRunner runner = new HeadlessRunner(5);
+        runner.run(10, 0, 0, NO_OUTPUT);
+        Island island = runner.getIsland();
+        SimRandom random = new SimRandom(1);
+        while (island.entities.size() < 50000) {
+            island.addEntity(new Rock(random.nextDouble() * 300 - 150, random.nextDouble() * 300 - 150));
+        }
+
+        long start = System.nanoTime();
+        ByteBuffer snapshot = Snapshot.write(island, null);
+        Island restored = restore(snapshot).island();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(state(island), state(restored));
+        // Generous bound: it only catches the round trip going quadratic
+        assertTrue(elapsedMs < 5000, "Writing and reading 50k entities took " + elapsedMs + "ms");
+    }
+
+    private static Snapshot.Restored restore(ByteBuffer snapshot) throws Exception {
+        return Snapshot.read(snapshot, new WorldContext(0), new Bitmaps(), Bitmaps.loadIsland(), () -> {});
+    }
+
+    private static List<String> state(Island island) {
+        List<String> state = new ArrayList<>();
+        state.add("tick " + island.getTickCount() + " pop " + island.population + "/" + island.populationCap
+            + " monsters " + island.monsterPopulation + " warriors " + island.warriorPopulation + "/" + island.warriorPopulationCap
+            + " wood " + island.resources.wood + " rock " + island.resources.rock + " food " + island.resources.food);
+        for (Entity e : island.entities) {
+            state.add(e.getClass().getSimpleName() + " " + e.getId() + " " + e.x + " " + e.y + " " + e.isAlive() + " " + e.isDormant());
+        }
+        return state;
+    }
+}
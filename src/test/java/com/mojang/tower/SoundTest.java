@@ -0,0 +1,48 @@
+package com.mojang.tower;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for pre-rendered sound playback.
+ */
+class SoundTest {
+
+    @Test
+    void deterministicSoundsPlayTheSameSamples() {
+        assertArrayEquals(play(new Sound.Ding()), play(new Sound.Ding()));
+        assertArrayEquals(play(new Sound.WinSound()), play(new Sound.WinSound()));
+    }
+
+    @Test
+    void soundFinishesAfterItsDuration() {
+        Sound sound = new Sound.Select();
+        int[] buffer = new int[4096];
+        assertFalse(sound.read(buffer, buffer.length), "A 10 ms sound ends within one period");
+        assertNotEquals(0, buffer[0]);
+        assertEquals(0, buffer[Sounds.SAMPLE_RATE * 10 / 1000]);
+    }
+
+    @Test
+    void playbackInPiecesMatchesOneRead() {
+        int[] whole = play(new Sound.Spawn());
+        Sound sound = new Sound.Spawn();
+        int[] pieces = new int[whole.length];
+        int[] period = new int[100];
+        for (int offset = 0; offset < pieces.length; offset += period.length) {
+            Arrays.fill(period, 0);
+            sound.read(period, period.length);
+            System.arraycopy(period, 0, pieces, offset, Math.min(period.length, pieces.length - offset));
+        }
+        assertArrayEquals(whole, pieces);
+    }
+
+    private static int[] play(Sound sound) {
+        int[] buffer = new int[Sounds.SAMPLE_RATE * 2];
+        assertFalse(sound.read(buffer, buffer.length));
+        return buffer;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mojang.tower;
+
+import org.junit.jupiter.api.Test;
+
+import static com.mojang.tower.TestEntities.withId;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the expiry-ordered peon target blacklist.
+ */
+class TargetBlacklistTest {
+
+    private final TargetBlacklist blacklist = new TargetBlacklist(60);
+
+    @Test
+    void entriesExpireAfterDuration() {
+        Rock rock = withId(new Rock(0, 0), 7);
+        blacklist.add(rock, 10);
+
+        blacklist.expire(69);
+        assertTrue(blacklist.contains(rock));
+
+        blacklist.expire(70);
+        assertFalse(blacklist.contains(rock));
+    }
+
+    @Test
+    void readdingExtendsEntry() {
+        Rock rock = withId(new Rock(0, 0), 3);
+        blacklist.add(rock, 0);
+        blacklist.add(rock, 30);
+
+        blacklist.expire(60);
+        assertTrue(blacklist.contains(rock), "Later entry keeps the target blacklisted");
+
+        blacklist.expire(90);
+        assertFalse(blacklist.contains(rock));
+    }
+
+    @Test
+    void readdingDoesNotEvictOtherEntries() {
+        Rock[] rocks = new Rock[4];
+        for (int i = 0; i < rocks.length; i++) {
+            rocks[i] = withId(new Rock(0, 0), i);
+            blacklist.add(rocks[i], i);
+        }
+        for (int now = 10; now < 20; now++) {
+            blacklist.add(rocks[3], now);
+        }
+
+        assertEquals(4, blacklist.size(), "One entry per target");
+        blacklist.expire(62);
+        assertFalse(blacklist.contains(rocks[2]));
+        assertTrue(blacklist.contains(rocks[3]));
+        blacklist.expire(79);
+        assertFalse(blacklist.contains(rocks[3]));
+    }
+
+    @Test
+    void growsPastInitialCapacityInExpiryOrder() {
+        Rock[] rocks = new Rock[10];
+        for (int i = 0; i < rocks.length; i++) {
+            rocks[i] = withId(new Rock(0, 0), i);
+            blacklist.add(rocks[i], i);
+        }
+
+        blacklist.expire(64);
+
+        for (int i = 0; i < rocks.length; i++) {
+            assertEquals(i > 4, blacklist.contains(rocks[i]), "rock " + i);
+        }
+    }
+
+    @Test
+    void entityWithoutIdIsNeverBlacklisted() {
+        Rock stray = new Rock(0, 0);
+        Rock other = new Rock(0, 0);
+        blacklist.add(stray, 0);
+
+        assertFalse(blacklist.contains(stray));
+        assertFalse(blacklist.contains(other));
+        assertEquals(0, blacklist.size());
+    }
+}
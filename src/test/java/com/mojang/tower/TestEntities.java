@@ -0,0 +1,15 @@
+package com.mojang.tower;
+
+/**
+ * Test support for code outside this package that needs entities with ids
+ * without building a whole Island.
+ */
+public final class TestEntities {
+    private TestEntities() {
+    }
+
+    public static <T extends Entity> T withId(T entity, int id) {
+        entity.id = id;
+        return entity;
+    }
+}
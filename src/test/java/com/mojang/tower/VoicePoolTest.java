@@ -0,0 +1,83 @@
+package com.mojang.tower;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the mixer's voice limits and stealing.
+ */
+class VoicePoolTest {
+
+    private final int[] buffer = new int[100];
+
+    @Test
+    void typeOverItsCapReplacesOwnOldestVoice() {
+        VoicePool pool = new VoicePool();
+        Sound first = new Sound.Gather();
+        pool.admit(first);
+        first.read(buffer, buffer.length);
+        pool.admit(new Sound.Gather());
+        pool.admit(new Sound.Gather());
+
+        assertTrue(pool.admit(new Sound.Gather()));
+        assertEquals(3, pool.size());
+        assertEquals(1, pool.getStolenCount());
+    }
+
+    @Test
+    void voiceCountStaysBoundedUnderLoad() {
+        VoicePool pool = new VoicePool();
+        for (int i = 0; i < 500; i++) {
+            pool.admit(new Sound.Gather());
+            pool.admit(new Sound.Death());
+            pool.admit(new Sound.Destroy());
+            pool.admit(new Sound.Spawn());
+            pool.admit(new Sound.SpawnWarrior());
+            pool.admit(new Sound.Ding());
+            pool.admit(new Sound.FinishBuilding());
+            pool.admit(new Sound.MonsterDeath());
+        }
+        assertTrue(pool.size() <= VoicePool.MAX_VOICES);
+    }
+
+    @Test
+    void fullPoolStealsLowestPriorityAndDropsWhatRanksBelowEverything() {
+        VoicePool pool = new VoicePool();
+        // Fill every voice with sounds that outrank Gather, one Plant among them
+        pool.admit(new Sound.Plant());
+        Sound[] loud = { new Sound.Destroy(), new Sound.Death(), new Sound.MonsterDeath(), new Sound.Spawn(), new Sound.SpawnWarrior() };
+        while (pool.size() < VoicePool.MAX_VOICES) {
+            for (Sound sound : loud) {
+                if (pool.size() < VoicePool.MAX_VOICES) pool.admit(copy(sound));
+            }
+        }
+
+        long stolen = pool.getStolenCount();
+        assertTrue(pool.admit(new Sound.Ding()), "Ding outranks the Plant");
+        assertEquals(stolen + 1, pool.getStolenCount());
+        assertFalse(pool.admit(new Sound.Gather()), "Everything playing outranks Gather");
+        assertEquals(1, pool.getDroppedCount());
+        assertEquals(VoicePool.MAX_VOICES, pool.size());
+    }
+
+    @Test
+    void finishedVoicesAreFreed() {
+        VoicePool pool = new VoicePool();
+        pool.admit(new Sound.Select());
+        pool.admit(new Sound.Ding());
+        pool.mix(new int[Sounds.SAMPLE_RATE / 50], Sounds.SAMPLE_RATE / 50);
+        assertEquals(1, pool.size(), "The 10 ms Select is done after 20 ms; the Ding is not");
+    }
+
+    private static Sound copy(Sound sound) {
+        return switch (sound) {
+            case Sound.Destroy s -> new Sound.Destroy();
+            case Sound.Death s -> new Sound.Death();
+            case Sound.MonsterDeath s -> new Sound.MonsterDeath();
+            case Sound.Spawn s -> new Sound.Spawn();
+            case Sound.SpawnWarrior s -> new Sound.SpawnWarrior();
+            default -> throw new IllegalArgumentException();
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.mojang.tower.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncChannelTest {
+
+    @Test
+    void blockingChannelDeliversEverythingInOrder() {
+        List<Integer> received = new ArrayList<>();
+        try (AsyncChannel<Integer> channel = new AsyncChannel<>("test", 8, AsyncChannel.Overflow.BLOCK, received::add)) {
+            for (int i = 0; i < 100_000; i++) {
+                assertTrue(channel.offer(i));
+            }
+        }
+
+        assertEquals(100_000, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
+    @Test
+    void droppingChannelNeverWaitsForSlowConsumer() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> received = new ArrayList<>();
+        AsyncChannel<Integer> channel = new AsyncChannel<>("test", 4, AsyncChannel.Overflow.DROP, e -> {
+            awaitQuietly(release);
+            received.add(e);
+        });
+
+        for (int i = 0; i < 100; i++) {
+            channel.offer(i);
+        }
+        assertTrue(channel.dropped() > 0);
+        release.countDown();
+        channel.close();
+
+        assertEquals(100 - channel.dropped(), received.size());
+        assertEquals(0, received.get(0));
+        assertFalse(channel.offer(100), "Closed channel accepts nothing");
+    }
+
+    @Test
+    void busHandsSubscribedEventsToChannel() {
+        EventBus bus = new EventBus();
+        List<SoundEvent> received = new ArrayList<>();
+        try (AsyncChannel<SoundEvent> channel = new AsyncChannel<>("test", 16, AsyncChannel.Overflow.BLOCK, received::add)) {
+            bus.register(SoundEvent.class, channel);
+            bus.dispatch(DingSound.INSTANCE);
+            bus.dispatch(new PuffEffect(0, 0));
+            bus.dispatch(DeathSound.INSTANCE);
+        }
+
+        assertEquals(List.of(DingSound.INSTANCE, DeathSound.INSTANCE), received);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
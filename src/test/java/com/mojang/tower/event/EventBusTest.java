@@ -0,0 +1,157 @@
+package com.mojang.tower.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+
+    @Test
+    void interfaceSubscribersReceiveEveryImplementation() {
+        EventBus bus = new EventBus();
+        List<SoundEvent> sounds = new ArrayList<>();
+        bus.register(SoundEvent.class, sounds::add);
+
+        bus.dispatch(new DingSound());
+        bus.dispatch(new DeathSound());
+        bus.dispatch(new PuffEffect(1, 2));
+
+        assertEquals(List.of(new DingSound(), new DeathSound()), sounds);
+    }
+
+    @Test
+    void listenersRunInSubscriptionOrderAcrossTypes() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+        bus.register(SoundEvent.class, e -> calls.add("sound"));
+        bus.register(DingSound.class, e -> calls.add("ding"));
+        bus.register(Object.class, e -> calls.add("any"));
+
+        bus.dispatch(new DingSound());
+
+        assertEquals(List.of("sound", "ding", "any"), calls);
+    }
+
+    @Test
+    void subscribeAndUnsubscribeTakeEffectAfterFirstDispatch() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+        bus.dispatch(new DingSound());
+
+        Consumer<SoundEvent> listener = e -> calls.add("sound");
+        bus.register(SoundEvent.class, listener);
+        bus.dispatch(new DingSound());
+        bus.unregister(SoundEvent.class, listener);
+        bus.dispatch(new DingSound());
+
+        assertEquals(List.of("sound"), calls);
+    }
+
+    @Test
+    void deferredEventsWaitForFlushAndKeepPublishOrder() {
+        EventBus bus = new EventBus();
+        List<Object> delivered = new ArrayList<>();
+        bus.register(Object.class, delivered::add);
+        bus.register(DingSound.class, e -> bus.dispatch(new PuffEffect(0, 0)));
+        bus.setDeferred(true);
+
+        for (int i = 0; i < 40; i++) {
+            bus.dispatch(new PuffEffect(i, 0));
+        }
+        bus.dispatch(new DingSound());
+        assertTrue(delivered.isEmpty());
+
+        bus.flush();
+        assertEquals(42, delivered.size());
+        assertEquals(new PuffEffect(39, 0), delivered.get(39));
+        assertEquals(new DingSound(), delivered.get(40));
+        assertEquals(new PuffEffect(0, 0), delivered.get(41), "Published during the flush, delivered by it");
+    }
+
+    @Test
+    void coalescingCapsEachClassPerFlush() {
+        EventBus bus = new EventBus();
+        List<SoundEvent> sounds = new ArrayList<>();
+        bus.register(SoundEvent.class, sounds::add);
+        bus.coalesce(SoundEvent.class, 2);
+        bus.setDeferred(true);
+
+        for (int i = 0; i < 5; i++) {
+            bus.dispatch(new GatherSound());
+            bus.dispatch(new DeathSound());
+        }
+        bus.flush();
+        assertEquals(List.of(new GatherSound(), new DeathSound(), new GatherSound(), new DeathSound()), sounds);
+
+        bus.dispatch(new GatherSound());
+        bus.flush();
+        assertEquals(5, sounds.size(), "Limit starts over after a flush");
+    }
+
+    @Test
+    void tapsSeeEveryEventWhenPublished() {
+        EventBus bus = new EventBus();
+        List<Object> tapped = new ArrayList<>();
+        Consumer<Object> tap = tapped::add;
+        bus.tap(tap);
+        bus.coalesce(SoundEvent.class, 1);
+        bus.setDeferred(true);
+        assertTrue(bus.hasListeners(PuffEffect.class), "A tap counts as a listener");
+
+        bus.dispatch(new GatherSound());
+        bus.dispatch(new GatherSound());
+        assertEquals(List.of(new GatherSound(), new GatherSound()), tapped, "Before deferral and coalescing");
+
+        bus.untap(tap);
+        bus.dispatch(new DingSound());
+        bus.flush();
+        assertEquals(2, tapped.size());
+        assertFalse(bus.hasListeners(PuffEffect.class));
+    }
+
+    @Test
+    void steadyStatePublishingAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        EventBus bus = new EventBus();
+        int[] heard = new int[1];
+        bus.register(SoundEvent.class, e -> heard[0]++);
+        bus.coalesce(SoundEvent.class, 2);
+
+        // Warm up both paths so class loading and route caching are done
+        publishTicks(bus, 2000);
+        bus.setDeferred(true);
+        publishTicks(bus, 2000);
+        bus.setDeferred(false);
+
+        // The JIT can allocate a few bytes once while it swaps in compiled code, so
+        // take the best of several rounds; a per-tick allocation shows in every round
+        long threadId = Thread.currentThread().threadId();
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 5 && allocated > 0; round++) {
+            bus.setDeferred(false);
+            long before = threads.getThreadAllocatedBytes(threadId);
+            publishTicks(bus, 1000);
+            bus.setDeferred(true);
+            publishTicks(bus, 1000);
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        assertEquals(0, allocated, "Bytes allocated over 2000 ticks of events");
+        assertTrue(heard[0] > 0);
+    }
+
+    private static void publishTicks(EventBus bus, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            bus.dispatch(GatherSound.INSTANCE);
+            bus.dispatch(DingSound.INSTANCE);
+            bus.dispatch(DeathSound.INSTANCE);
+            bus.hasListeners(PuffEffect.class);
+            bus.flush();
+        }
+    }
+}
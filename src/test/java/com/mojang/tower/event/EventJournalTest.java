@@ -0,0 +1,94 @@
+package com.mojang.tower.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private record Entry(int tick, Object event) {
+    }
+
+    @Test
+    void readsBackEveryEventWithItsTickAcrossSegments() throws IOException {
+        int[] tick = {0};
+        List<Entry> written = new ArrayList<>();
+        EventBus bus = new EventBus();
+        try (EventJournal journal = new EventJournal(directory, () -> tick[0], 256)) {
+            bus.tap(journal);
+            for (tick[0] = 0; tick[0] < 500; tick[0] += 3) {
+                Object event = switch (tick[0] % 4) {
+                    case 0 -> GatherSound.INSTANCE;
+                    case 1 -> new PuffEffect(tick[0] * 0.5, -tick[0] * 0.25);
+                    case 2 -> new InfoPuffEffect(-12.75, 99.5, tick[0] % 7);
+                    default -> WinSound.INSTANCE;
+                };
+                bus.dispatch(event);
+                written.add(new Entry(tick[0], event));
+            }
+            bus.dispatch("not an event");
+            assertEquals(written.size(), journal.records());
+        }
+
+        List<Entry> read = new ArrayList<>();
+        long count = EventJournal.read(directory, (t, e) -> read.add(new Entry(t, e)));
+
+        try (var segments = Files.list(directory)) {
+            assertTrue(segments.count() > 1, "Small segments roll over");
+        }
+        assertEquals(written.size(), count);
+        assertEquals(written, read);
+    }
+
+    @Test
+    void recordsEventsThatCoalescingDrops() throws IOException {
+        EventBus bus = new EventBus();
+        List<Object> delivered = new ArrayList<>();
+        bus.register(Object.class, delivered::add);
+        bus.coalesce(SoundEvent.class, 2);
+        bus.setDeferred(true);
+        try (EventJournal journal = new EventJournal(directory, () -> 3)) {
+            bus.tap(journal);
+            for (int i = 0; i < 5; i++) {
+                bus.dispatch(GatherSound.INSTANCE);
+            }
+            bus.flush();
+        }
+
+        List<Entry> read = new ArrayList<>();
+        EventJournal.read(directory, (t, e) -> read.add(new Entry(t, e)));
+        assertEquals(2, delivered.size());
+        assertEquals(5, read.size());
+        assertEquals(new Entry(3, GatherSound.INSTANCE), read.get(4));
+    }
+
+    @Test
+    void reopenedJournalContinuesAfterExistingSegments() throws IOException {
+        try (EventJournal journal = new EventJournal(directory, () -> 5)) {
+            journal.append(DingSound.INSTANCE);
+        }
+        try (EventJournal journal = new EventJournal(directory, () -> 1)) {
+            journal.append(DeathSound.INSTANCE);
+        }
+
+        List<Entry> read = new ArrayList<>();
+        EventJournal.read(directory, (t, e) -> read.add(new Entry(t, e)));
+        assertEquals(List.of(new Entry(5, DingSound.INSTANCE), new Entry(1, DeathSound.INSTANCE)), read);
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Files.writeString(directory.resolve("events-000000.journal"), "not a journal");
+        assertThrows(IOException.class, () -> EventJournal.read(directory, (t, e) -> { }));
+    }
+}
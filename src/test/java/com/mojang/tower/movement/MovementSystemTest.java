@@ -0,0 +1,192 @@
+package com.mojang.tower.movement;
+
+import com.mojang.tower.Entity;
+import com.mojang.tower.Peon;
+import com.mojang.tower.TargetFilter;
+import com.mojang.tower.navigation.NavigationGrid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MovementSystem single and batched moves.
+ */
+class MovementSystemTest {
+
+    private final List<Entity> entities = new ArrayList<>();
+    private MovementSystem movement;
+
+    /**
+     * Open ground inside +-100 world units, colliding against the test entity list.
+     */
+    private final NavigationGrid grid = new NavigationGrid() {
+        @Override
+        public boolean isOnGround(double x, double y) {
+            return Math.abs(x) < 100 && Math.abs(y) < 100;
+        }
+
+        @Override
+        public boolean isFree(double x, double y, double radius, Entity exclude) {
+            return isOnGround(x, y) && getEntityAt(x, y, radius, null, exclude) == null;
+        }
+
+        @Override
+        public Entity getEntityAt(double x, double y, double radius, TargetFilter filter, Entity exclude) {
+            Entity closest = null;
+            double closestDist = Double.MAX_VALUE;
+            for (Entity e : entities) {
+                if (e == exclude || !e.collides(x, y, radius)) continue;
+                double dist = (e.x - x) * (e.x - x) + (e.y - y) * (e.y - y);
+                if (dist < closestDist) {
+                    closestDist = dist;
+                    closest = e;
+                }
+            }
+            return closest;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        movement = new MovementSystem();
+        movement.setNavigationGrid(grid);
+    }
+
+    private Peon peon(double x, double y) {
+        Peon peon = new Peon(x, y, 0);
+        entities.add(peon);
+        return peon;
+    }
+
+    @Test
+    void move_freeTarget_updatesPosition() {
+        Peon peon = peon(0, 0);
+
+        MovementResult result = movement.move(new MovementRequest(peon, 0.4, 0));
+
+        assertEquals(new MovementResult.Moved(0.4, 0), result);
+        assertEquals(0.4, peon.x);
+    }
+
+    @Test
+    void move_intoOtherEntity_reportsBlocker() {
+        movement.setAvoidance(false);
+        Peon peon = peon(0, 0);
+        Peon other = peon(1.5, 0);
+
+        MovementResult result = movement.move(new MovementRequest(peon, 0.4, 0));
+
+        assertEquals(new MovementResult.Blocked(other), result);
+        assertEquals(0, peon.x);
+    }
+
+    @Test
+    void moveAll_reportsOutcomesPerSlot() {
+        movement.setAvoidance(false);
+        Peon walker = peon(0, 0);
+        Peon blocked = peon(20, 0);
+        Peon wall = peon(21.5, 0);
+        Peon edge = peon(99.8, 0);
+
+        MovementBatch batch = new MovementBatch(1);
+        int walkerSlot = batch.add(walker, 0.4, 0);
+        int blockedSlot = batch.add(blocked, 20.4, 0);
+        int edgeSlot = batch.add(edge, 100.2, 0);
+
+        movement.moveAll(batch);
+
+        assertEquals(MovementBatch.MOVED, batch.status(walkerSlot));
+        assertNull(batch.blocker(walkerSlot));
+        assertEquals(0.4, walker.x);
+
+        assertEquals(MovementBatch.BLOCKED, batch.status(blockedSlot));
+        assertSame(wall, batch.blocker(blockedSlot));
+        assertEquals(20, blocked.x);
+
+        assertEquals(MovementBatch.BLOCKED, batch.status(edgeSlot));
+        assertNull(batch.blocker(edgeSlot), "Terrain blocks report no blocker");
+    }
+
+    @Test
+    void moveAll_resolvesInSpatialOrderRegardlessOfInsertionOrder() {
+        // Both peons step into the same spot; the one in the lower grid row wins.
+        movement.setAvoidance(false);
+        Peon south = peon(0, 10);
+        Peon north = peon(0, 0);
+
+        MovementBatch batch = new MovementBatch(4);
+        int southSlot = batch.add(south, 0, 5);
+        int northSlot = batch.add(north, 0, 5);
+
+        movement.moveAll(batch);
+
+        assertEquals(MovementBatch.MOVED, batch.status(northSlot));
+        assertEquals(MovementBatch.BLOCKED, batch.status(southSlot));
+        assertSame(north, batch.blocker(southSlot));
+    }
+
+    @Test
+    void moveAll_clearKeepsBatchReusable() {
+        Peon peon = peon(0, 0);
+        MovementBatch batch = new MovementBatch(2);
+
+        for (int tick = 0; tick < 3; tick++) {
+            batch.clear();
+            batch.add(peon, peon.x + 0.4, peon.y);
+            movement.moveAll(batch);
+        }
+
+        assertEquals(1, batch.size());
+        assertEquals(1.2, peon.x, 1e-9);
+    }
+
+    @Test
+    void move_avoidance_sideStepsAroundAgent() {
+        Peon peon = peon(0, 0);
+        peon(1.7, 0);
+
+        MovementResult result = movement.move(new MovementRequest(peon, 0.4, 0));
+
+        assertInstanceOf(MovementResult.Moved.class, result);
+        assertEquals(0.4, Math.hypot(peon.x, peon.y), 1e-9, "Side-step keeps the step length");
+        assertNotEquals(0, peon.y, "Peon should have stepped sideways");
+        assertEquals(1, movement.getAvoidedCount());
+        assertEquals(0, movement.getBlockedCount());
+    }
+
+    @Test
+    void move_avoidance_reducesBlockedMovesInCrowd() {
+        assertTrue(walkThroughCrowd(true) < walkThroughCrowd(false),
+            "Avoidance should report fewer Blocked results than plain collision");
+    }
+
+    /**
+     * Walk a line of peons east through a loose column of standing peons.
+     * @return number of Blocked results reported
+     */
+    private long walkThroughCrowd(boolean avoidance) {
+        entities.clear();
+        movement = new MovementSystem();
+        movement.setNavigationGrid(grid);
+        movement.setAvoidance(avoidance);
+
+        for (int i = 0; i < 8; i++) {
+            peon(10, i * 4 - 16);
+        }
+        List<Peon> walkers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            walkers.add(peon(0, i * 4 - 16 + 0.3));
+        }
+
+        for (int step = 0; step < 60; step++) {
+            for (Peon walker : walkers) {
+                movement.move(new MovementRequest(walker, walker.x + 0.4, walker.y));
+            }
+        }
+        return movement.getBlockedCount();
+    }
+}
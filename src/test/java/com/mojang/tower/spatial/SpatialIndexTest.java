@@ -0,0 +1,112 @@
+package com.mojang.tower.spatial;
+
+import com.mojang.tower.Entity;
+import com.mojang.tower.Peon;
+import com.mojang.tower.TargetFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mojang.tower.TestEntities.withId;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the uniform-grid SpatialIndex.
+ */
+class SpatialIndexTest {
+
+    private final SpatialIndex<Peon> index = new SpatialIndex<>();
+    private int nextId = 0;
+
+    private Peon peon(double x, double y) {
+        Peon peon = withId(new Peon(x, y, 0), nextId++);
+        index.add(peon);
+        return peon;
+    }
+
+    @Test
+    void nearest_returnsClosestWithinRadius() {
+        peon(40, 0);
+        Peon close = peon(5, 5);
+        peon(-30, 20);
+
+        assertSame(close, index.nearest(0, 0, 50, null));
+        assertNull(index.nearest(100, 100, 50, null));
+    }
+
+    @Test
+    void nearest_findsEntityInFartherCellBeforeCloserRingIsExhausted() {
+        // Same cell as the query but farther than a peon just across the cell border
+        Peon inCell = peon(1, 1);
+        Peon acrossBorder = peon(-0.5, 0);
+
+        assertSame(acrossBorder, index.nearest(0.1, 0, 20, null));
+        assertNotSame(inCell, index.nearest(0.1, 0, 20, null));
+    }
+
+    @Test
+    void nearest_equalDistanceBreaksTiesByLowerId() {
+        Peon first = peon(10, 0);
+        peon(-10, 0);
+        peon(0, 10);
+
+        assertSame(first, index.nearest(0, 0, 50, null));
+    }
+
+    @Test
+    void nearest_appliesFilter() {
+        Peon worker = peon(20, 0);
+        Peon warrior = peon(2, 0);
+        warrior.type = 1;
+
+        TargetFilter workers = new TargetFilter() {
+            @Override
+            public boolean accepts(Entity e) {
+                return ((Peon) e).type == 0;
+            }
+        };
+
+        assertSame(worker, index.nearest(0, 0, 50, workers));
+    }
+
+    @Test
+    void collect_returnsEveryEntityInRadius() {
+        Peon a = peon(0, 0);
+        Peon b = peon(30, 30);
+        peon(40, 40);
+        Peon c = peon(-20, 5);
+
+        List<Peon> found = new ArrayList<>();
+        index.collect(0, 0, 45, found);
+
+        assertEquals(3, found.size());
+        assertTrue(found.containsAll(List.of(a, b, c)));
+    }
+
+    @Test
+    void removeAndUpdate_keepIndexConsistent() {
+        Peon a = peon(0, 0);
+        Peon b = peon(3, 0);
+        Peon c = peon(100, 100);
+
+        index.remove(a);
+        assertFalse(index.contains(a));
+        assertEquals(2, index.size());
+        assertSame(b, index.nearest(0, 0, 50, null));
+
+        // Move c next to the query point; the index only sees it after update
+        c.x = -1;
+        c.y = 0;
+        index.update(c);
+        assertSame(c, index.nearest(0, 0, 50, null));
+
+        index.remove(a);
+        assertEquals(2, index.size(), "Removing twice is a no-op");
+    }
+
+    @Test
+    void add_withoutId_throws() {
+        assertThrows(IllegalArgumentException.class, () -> index.add(new Peon(0, 0, 0)));
+    }
+}
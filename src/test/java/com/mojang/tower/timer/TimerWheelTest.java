@@ -0,0 +1,127 @@
+package com.mojang.tower.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hierarchical TimerWheel.
+ */
+class TimerWheelTest {
+
+    private final TimerWheel wheel = new TimerWheel();
+    private final List<String> fired = new ArrayList<>();
+
+    private Timer timer(String name) {
+        return new Timer(() -> fired.add(name + "@" + wheel.now()));
+    }
+
+    @Test
+    void firesOnDeadlineTick() {
+        wheel.schedule(timer("a"), 5);
+
+        wheel.advance(4);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(5);
+        assertEquals(List.of("a@5"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void sameTickFiresInScheduleOrder() {
+        wheel.schedule(timer("late"), 5000);
+        wheel.schedule(timer("soon"), 70);
+        wheel.schedule(timer("b"), 5000);
+        wheel.schedule(timer("a"), 5000);
+
+        wheel.advance(6000);
+
+        assertEquals(List.of("soon@70", "late@5000", "b@5000", "a@5000"), fired);
+    }
+
+    @Test
+    void cascadesAcrossAllLevelsAndOverflow() {
+        int[] deadlines = { 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 1 << 24, (1 << 24) + 7 };
+        for (int deadline : deadlines) {
+            wheel.schedule(timer("t"), deadline);
+        }
+
+        wheel.advance((1 << 24) + 10);
+
+        List<String> expected = new ArrayList<>();
+        for (int deadline : deadlines) {
+            expected.add("t@" + deadline);
+        }
+        assertEquals(expected, fired);
+    }
+
+    @Test
+    void rescheduleMovesPendingTimer() {
+        Timer timer = timer("t");
+        wheel.schedule(timer, 10);
+        wheel.schedule(timer, 300);
+
+        wheel.advance(300);
+
+        assertEquals(List.of("t@300"), fired);
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        wheel.advance(100);
+        wheel.schedule(timer("t"), 50);
+
+        wheel.advance(101);
+
+        assertEquals(List.of("t@101"), fired);
+    }
+
+    @Test
+    void actionCanCancelTimerDueOnSameTick() {
+        Timer victim = timer("victim");
+        Timer killer = new Timer(victim::cancel);
+        wheel.schedule(killer, 10);
+        wheel.schedule(victim, 10);
+
+        wheel.advance(10);
+
+        assertTrue(fired.isEmpty());
+        assertFalse(victim.isPending());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void actionCanRescheduleItself() {
+        Timer[] self = new Timer[1];
+        self[0] = new Timer(() -> {
+            fired.add("tick@" + wheel.now());
+            if (fired.size() < 3) wheel.schedule(self[0], wheel.now() + 100);
+        });
+        wheel.schedule(self[0], 100);
+
+        wheel.advance(1000);
+
+        assertEquals(List.of("tick@100", "tick@200", "tick@300"), fired);
+    }
+
+    @Test
+    void actionCanRescheduleLaterTimerOfSameBatchOntoOccupiedSlot() {
+        Timer b = timer("b");
+        Timer a = new Timer(() -> wheel.schedule(b, 20));
+        wheel.schedule(a, 10);
+        wheel.schedule(b, 10);
+        wheel.schedule(timer("c"), 20);
+
+        wheel.advance(10);
+        assertEquals(2, wheel.size());
+
+        wheel.advance(30);
+
+        assertEquals(List.of("c@20", "b@20"), fired);
+        assertEquals(0, wheel.size());
+    }
+}